@@ -0,0 +1,92 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.document.AuditActivityRollup;
+import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.document.enums.RollupGranularity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Folds written audit events into hourly and daily AuditActivityRollup counters. A batch is first
+ * collapsed in memory, so each touched bucket costs one $inc upsert no matter how many events it got.
+ */
+@Component
+@Slf4j
+public class AuditActivityRollups {
+
+    private final MongoTemplate mongoTemplate;
+    private final Counter failedCounter;
+
+    public AuditActivityRollups(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.failedCounter = Counter.builder("audit.rollups.failed")
+                .description("Audit events whose rollup counters could not be updated")
+                .register(meterRegistry);
+    }
+
+    public void record(Collection<AuditLog> events) {
+        Map<String, Increment> increments = new HashMap<>();
+        for (AuditLog event : events) {
+            if (event.getTimestamp() == null) {
+                continue;
+            }
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                AuditActivityRollup bucket = AuditActivityRollup.builder()
+                        .granularity(granularity)
+                        .bucketStart(granularity.bucketOf(event.getTimestamp()))
+                        .entityType(event.getEntityType())
+                        .actionType(event.getActionType())
+                        .userId(event.getUserId())
+                        .build();
+                increments.computeIfAbsent(idOf(bucket), id -> new Increment(bucket)).count++;
+            }
+        }
+        if (increments.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AuditActivityRollup.class);
+        increments.forEach((id, increment) -> {
+            AuditActivityRollup bucket = increment.bucket;
+            bulk.upsert(Query.query(Criteria.where("_id").is(id)), new Update()
+                    .inc("count", increment.count)
+                    .setOnInsert("granularity", bucket.getGranularity())
+                    .setOnInsert("bucketStart", bucket.getBucketStart())
+                    .setOnInsert("entityType", bucket.getEntityType())
+                    .setOnInsert("actionType", bucket.getActionType())
+                    .setOnInsert("userId", bucket.getUserId()));
+        });
+        try {
+            bulk.execute();
+        } catch (RuntimeException e) {
+            // The events themselves are stored; only the charts undercount
+            failedCounter.increment(events.size());
+            log.error("Failed to update audit activity rollups for {} events: {}", events.size(), e.getMessage());
+        }
+    }
+
+    private static String idOf(AuditActivityRollup bucket) {
+        return String.join("|", bucket.getGranularity().name(), bucket.getBucketStart().toString(),
+                String.valueOf(bucket.getEntityType()), String.valueOf(bucket.getActionType()), String.valueOf(bucket.getUserId()));
+    }
+
+    private static final class Increment {
+
+        private final AuditActivityRollup bucket;
+        private long count;
+
+        private Increment(AuditActivityRollup bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.scheduler.ClusterLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Moves audit events older than app.audit.archive.max-age out of Mongo into AuditArchiveSegment
+ * files under app.audit.archive.directory, and reads them back for time-range queries that reach
+ * past that age. Only the /api/v1/audit-logs/range endpoint reads the archive; the paged, scroll and
+ * field-change queries see Mongo alone, so archived events drop out of them.
+ *
+ * With more than one instance the directory must be shared storage that every instance mounts:
+ * archiving runs on one node at a time under a cluster lock, and each node picks up segments
+ * written by the others when a range query next reaches the archive. On per-node disks each
+ * instance would only see the events it archived itself.
+ *
+ * Each step reads the oldest events from Mongo, writes them to a temporary file that is forced to
+ * disk and renamed into place, and only then deletes them from Mongo. A crash between the rename
+ * and the delete leaves the events in both places; they are archived again on the next run and
+ * readers drop the duplicates by id. Segment footers are kept in memory so a range query only
+ * opens the segments that can contain matches.
+ */
+@Component
+@Slf4j
+public class AuditArchive {
+
+    public static final Comparator<AuditLog> NEWEST_FIRST =
+            Comparator.comparing(AuditLog::getTimestamp).thenComparing(AuditLog::getId).reversed();
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".arc";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String LOCK_NAME = "audit-archive";
+
+    private final MongoTemplate mongoTemplate;
+    private final ClusterLock clusterLock;
+    private final AppProperties.Archive properties;
+    private final Path directory;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final Set<Path> loaded = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock scanLock = new ReentrantLock();
+    private final Counter archivedCounter;
+
+    private record Segment(Path file, AuditArchiveSegment.Footer footer) {
+    }
+
+    public AuditArchive(MongoTemplate mongoTemplate, ClusterLock clusterLock, AppProperties appProperties,
+                        MeterRegistry meterRegistry) throws IOException {
+        this.mongoTemplate = mongoTemplate;
+        this.clusterLock = clusterLock;
+        this.properties = appProperties.getAudit().getArchive();
+        this.directory = Path.of(properties.getDirectory());
+        this.archivedCounter = Counter.builder("audit.archive.events")
+                .description("Audit events moved from Mongo into archive segments")
+                .register(meterRegistry);
+        Gauge.builder("audit.archive.segments", segments, List::size)
+                .description("Archive segment files known to this instance")
+                .register(meterRegistry);
+        if (properties.isEnabled()) {
+            Duration retention = appProperties.getAudit().getRetention();
+            if (retention != null && retention.compareTo(properties.getMaxAge()) <= 0) {
+                log.warn("app.audit.retention ({}) is not longer than app.audit.archive.max-age ({}); "
+                        + "the TTL index will delete audit events before they are archived", retention, properties.getMaxAge());
+            }
+            loadSegments();
+            log.info("Loaded {} audit archive segments from {}", segments.size(), directory);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /** Events older than this have been, or are about to be, moved out of Mongo. */
+    public LocalDateTime horizon() {
+        return LocalDateTime.now().minus(properties.getMaxAge());
+    }
+
+    @Scheduled(initialDelayString = "#{@appProperties.audit.archive.interval.toMillis()}",
+               fixedDelayString = "#{@appProperties.audit.archive.interval.toMillis()}")
+    public void archiveExpired() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        clusterLock.runExclusively(LOCK_NAME, this::archive);
+    }
+
+    private void archive() {
+        LocalDateTime cutoff = horizon();
+        int archived = 0;
+        try {
+            deleteTempFiles();
+            while (true) {
+                Query oldest = new Query(Criteria.where("timestamp").lt(cutoff))
+                        .with(Sort.by(Sort.Direction.ASC, "timestamp", "_id"))
+                        .limit(properties.getSegmentEvents());
+                List<AuditLog> batch = mongoTemplate.find(oldest, AuditLog.class);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                writeSegment(batch);
+                List<String> ids = batch.stream().map(AuditLog::getId).toList();
+                mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), AuditLog.class);
+                archived += batch.size();
+                archivedCounter.increment(batch.size());
+                if (batch.size() < properties.getSegmentEvents()) {
+                    break;
+                }
+            }
+        } catch (IOException | DataAccessException e) {
+            log.error("Audit archiving stopped after {} events: {}", archived, e.getMessage(), e);
+            return;
+        }
+        if (archived > 0) {
+            log.info("Archived {} audit events older than {}", archived, cutoff);
+        }
+    }
+
+    /**
+     * Archived events in [from, to), optionally for one entity type and/or id, newest first and at
+     * most limit of them.
+     */
+    public List<AuditLog> find(LocalDateTime from, LocalDateTime to, String entityType, Long entityId, int limit) {
+        try {
+            loadSegments(); // Segments archived by other instances since the last query
+        } catch (IOException e) {
+            log.error("Failed to list audit archive directory {}: {}", directory, e.getMessage());
+        }
+        AuditArchiveSegment.Filter filter = new AuditArchiveSegment.Filter(from, to, entityType, entityId);
+        // Newest segments first, so reading can stop once enough rows are older than everything left
+        List<Segment> candidates = segments.stream()
+                .filter(segment -> segment.footer().overlaps(from, to, entityId))
+                .sorted(Comparator.comparing((Segment segment) -> segment.footer().maxTimestamp()).reversed())
+                .toList();
+        Map<String, AuditLog> result = new HashMap<>(); // Keyed by id to drop events archived twice
+        for (Segment segment : candidates) {
+            if (result.size() >= limit && oldestOf(result.values(), limit).isAfter(segment.footer().maxTimestamp())) {
+                break;
+            }
+            try {
+                AuditArchiveSegment.read(segment.file(), segment.footer(), filter)
+                        .forEach(event -> result.putIfAbsent(event.getId(), event));
+            } catch (IOException e) {
+                log.error("Failed to read audit archive segment {}: {}", segment.file(), e.getMessage());
+            }
+        }
+        return result.values().stream()
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    // Timestamp of the limit-th newest event: segments ending before it can't contribute
+    private static LocalDateTime oldestOf(Collection<AuditLog> events, int limit) {
+        return events.stream().map(AuditLog::getTimestamp)
+                .sorted(Comparator.reverseOrder())
+                .skip(limit - 1)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void writeSegment(List<AuditLog> batch) throws IOException {
+        Files.createDirectories(directory);
+        AuditLog first = batch.get(0);
+        // The write time keeps a re-archived batch from replacing a segment whose events may already be gone from Mongo
+        String name = SEGMENT_PREFIX + first.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli() + "-" + first.getId()
+                + "-" + System.currentTimeMillis();
+        Path temp = directory.resolve(name + TEMP_SUFFIX);
+        Path file = directory.resolve(name + SEGMENT_SUFFIX);
+        Files.deleteIfExists(temp);
+        AuditArchiveSegment.Footer footer = AuditArchiveSegment.write(temp, batch);
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        add(new Segment(file, footer));
+    }
+
+    // Adds segment files not seen yet; unreadable ones are retried on the next scan
+    private void loadSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        scanLock.lock();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX) && !loaded.contains(file)) {
+                    try {
+                        add(new Segment(file, AuditArchiveSegment.readFooter(file)));
+                    } catch (IOException e) {
+                        log.error("Skipping unreadable audit archive segment {}: {}", file, e.getMessage());
+                    }
+                }
+            }
+        } finally {
+            scanLock.unlock();
+        }
+    }
+
+    private void add(Segment segment) {
+        if (loaded.add(segment.file())) {
+            segments.add(segment);
+        }
+    }
+
+    // Only called under the cluster lock, so no other instance is writing one of these
+    private void deleteTempFiles() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    Files.delete(file); // Interrupted write; its events are still in Mongo
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.document.FieldChange;
+import com.example.clb.projecttracker.document.enums.ActionType;
+import org.bson.types.ObjectId;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File format of one archived batch of audit events, oldest first. The body is a gzip stream
+ * holding one column after another: delta-encoded timestamps, ids, dictionary-encoded entity
+ * types, actions and users, entity and project ids, then details and changes. Similar values
+ * sit next to each other, which is what makes the column layout compress well.
+ *
+ * A fixed-size, uncompressed footer at the end of the file carries the row count and the
+ * timestamp and entity id ranges, so a query can rule a segment out without inflating it.
+ * Timestamps are stored as epoch millis of the LocalDateTime read as UTC; Mongo keeps millisecond
+ * precision too, so they round-trip unchanged.
+ */
+final class AuditArchiveSegment {
+
+    private static final int MAGIC = 0x41415231; // "AAR1"
+    static final int FOOTER_BYTES = 4 + 4 + 8 * 4;
+    // Uncompressed: timestamp delta, id, three dictionary indexes, two ids, details and change count
+    private static final int MIN_ROW_BYTES = 1 + 12 + 3 + 2 + 1 + 1;
+
+    private AuditArchiveSegment() {
+    }
+
+    /** Row count plus the ranges queries prune on; entity ids are Long.MAX_VALUE/MIN_VALUE when none is set. */
+    record Footer(int count, LocalDateTime minTimestamp, LocalDateTime maxTimestamp, long minEntityId, long maxEntityId) {
+
+        boolean overlaps(LocalDateTime from, LocalDateTime to, Long entityId) {
+            if (!minTimestamp.isBefore(to) || maxTimestamp.isBefore(from)) {
+                return false;
+            }
+            return entityId == null || (entityId >= minEntityId && entityId <= maxEntityId);
+        }
+    }
+
+    /** Row filter applied while decoding, before anything but the cheap columns is materialized. */
+    record Filter(LocalDateTime from, LocalDateTime to, String entityType, Long entityId) {
+
+        boolean matches(LocalDateTime timestamp, String rowEntityType, Long rowEntityId) {
+            return !timestamp.isBefore(from) && timestamp.isBefore(to)
+                    && (entityType == null || entityType.equals(rowEntityType))
+                    && (entityId == null || entityId.equals(rowEntityId));
+        }
+    }
+
+    /** Writes the events, which must be sorted by timestamp, and forces the file to disk. */
+    static Footer write(Path file, List<AuditLog> events) throws IOException {
+        long minEntityId = Long.MAX_VALUE;
+        long maxEntityId = Long.MIN_VALUE;
+        for (AuditLog event : events) {
+            if (event.getEntityId() != null) {
+                minEntityId = Math.min(minEntityId, event.getEntityId());
+                maxEntityId = Math.max(maxEntityId, event.getEntityId());
+            }
+        }
+        Footer footer = new Footer(events.size(), events.get(0).getTimestamp(),
+                events.get(events.size() - 1).getTimestamp(), minEntityId, maxEntityId);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            OutputStream unclosable = new BufferedOutputStream(Channels.newOutputStream(channel)) {
+                @Override
+                public void close() throws IOException {
+                    flush(); // Keep the channel open for the footer
+                }
+            };
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(unclosable, 64 * 1024))) {
+                writeBody(out, events);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(FOOTER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(footer.count())
+                    .putLong(toMillis(footer.minTimestamp()))
+                    .putLong(toMillis(footer.maxTimestamp()))
+                    .putLong(footer.minEntityId())
+                    .putLong(footer.maxEntityId())
+                    .flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        return footer;
+    }
+
+    static Footer readFooter(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FOOTER_BYTES) {
+                throw new IOException("Archive segment " + file + " is too short");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(FOOTER_BYTES);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, size - FOOTER_BYTES + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of archive segment " + file);
+                }
+            }
+            buffer.flip();
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Archive segment " + file + " has no valid footer");
+            }
+            Footer footer = new Footer(buffer.getInt(), fromMillis(buffer.getLong()), fromMillis(buffer.getLong()),
+                    buffer.getLong(), buffer.getLong());
+            // Deflate expands at most ~1032x and a row takes at least MIN_ROW_BYTES, which bounds the row count by file size
+            long maxRows = (size - FOOTER_BYTES) * 1032 / MIN_ROW_BYTES;
+            if (footer.count() <= 0 || footer.count() > maxRows || footer.maxTimestamp().isBefore(footer.minTimestamp())) {
+                throw new IOException("Archive segment " + file + " has an invalid footer");
+            }
+            return footer;
+        }
+    }
+
+    /** Reads the rows matching filter; a damaged segment fails with an IOException rather than a runtime exception. */
+    static List<AuditLog> read(Path file, Footer footer, Filter filter) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream body = new BufferedInputStream(new GZIPInputStream(Channels.newInputStream(channel), 64 * 1024));
+             DataInputStream in = new DataInputStream(body)) {
+            return readBody(in, footer.count(), filter);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Archive segment " + file + " is corrupt: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeBody(DataOutputStream out, List<AuditLog> events) throws IOException {
+        long previous = 0;
+        for (AuditLog event : events) {
+            long millis = toMillis(event.getTimestamp());
+            writeVarLong(out, millis - previous); // Sorted input keeps these small and non-negative
+            previous = millis;
+        }
+        for (AuditLog event : events) {
+            out.write(new ObjectId(event.getId()).toByteArray());
+        }
+        writeDictionaryColumn(out, events.stream().map(AuditLog::getEntityType).toList());
+        writeDictionaryColumn(out, events.stream()
+                .map(event -> event.getActionType() != null ? event.getActionType().name() : null).toList());
+        writeDictionaryColumn(out, events.stream().map(AuditLog::getUserId).toList());
+        for (AuditLog event : events) {
+            writeNullableLong(out, event.getEntityId());
+        }
+        for (AuditLog event : events) {
+            writeNullableLong(out, event.getProjectId());
+        }
+        for (AuditLog event : events) {
+            writeString(out, event.getDetails());
+        }
+        for (AuditLog event : events) {
+            List<FieldChange> changes = event.getChanges();
+            writeVarLong(out, changes == null ? 0 : changes.size());
+            if (changes != null) {
+                for (FieldChange change : changes) {
+                    writeString(out, change.getField());
+                    writeString(out, change.getFrom());
+                    writeString(out, change.getTo());
+                }
+            }
+        }
+    }
+
+    private static List<AuditLog> readBody(DataInputStream in, int count, Filter filter) throws IOException {
+        LocalDateTime[] timestamps = new LocalDateTime[count];
+        long millis = 0;
+        for (int i = 0; i < count; i++) {
+            millis += readVarLong(in);
+            timestamps[i] = fromMillis(millis);
+        }
+        byte[][] ids = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            ids[i] = new byte[12];
+            in.readFully(ids[i]);
+        }
+        String[] entityTypes = readDictionaryColumn(in, count);
+        String[] actionTypes = readDictionaryColumn(in, count);
+        String[] userIds = readDictionaryColumn(in, count);
+        Long[] entityIds = new Long[count];
+        for (int i = 0; i < count; i++) {
+            entityIds[i] = readNullableLong(in);
+        }
+
+        // Everything after this point is only kept for matching rows
+        boolean[] matches = new boolean[count];
+        List<AuditLog> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            matches[i] = filter.matches(timestamps[i], entityTypes[i], entityIds[i]);
+            if (matches[i]) {
+                result.add(AuditLog.builder()
+                        .id(new ObjectId(ids[i]).toHexString())
+                        .timestamp(timestamps[i])
+                        .entityType(entityTypes[i])
+                        .entityId(entityIds[i])
+                        .actionType(actionTypes[i] != null ? ActionType.valueOf(actionTypes[i]) : null)
+                        .userId(userIds[i])
+                        .build());
+            }
+        }
+        if (result.isEmpty()) {
+            return result;
+        }
+        int row = 0;
+        for (int i = 0; i < count; i++) {
+            Long projectId = readNullableLong(in);
+            if (matches[i]) {
+                result.get(row++).setProjectId(projectId);
+            }
+        }
+        row = 0;
+        for (int i = 0; i < count; i++) {
+            String details = readString(in);
+            if (matches[i]) {
+                result.get(row++).setDetails(details);
+            }
+        }
+        row = 0;
+        for (int i = 0; i < count; i++) {
+            long size = readVarLong(in);
+            // No capacity hint: a corrupt size then runs into the end of the stream instead of allocating it up front
+            List<FieldChange> changes = size == 0 ? null : new ArrayList<>();
+            for (int c = 0; c < size; c++) {
+                changes.add(new FieldChange(readString(in), readString(in), readString(in)));
+            }
+            if (matches[i]) {
+                result.get(row++).setChanges(changes);
+            }
+        }
+        return result;
+    }
+
+    // Distinct values first, then one index per row; 0 stands for null
+    private static void writeDictionaryColumn(DataOutputStream out, List<String> values) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> distinct = new ArrayList<>();
+        for (String value : values) {
+            if (value != null && dictionary.putIfAbsent(value, distinct.size() + 1) == null) {
+                distinct.add(value);
+            }
+        }
+        writeVarLong(out, distinct.size());
+        for (String value : distinct) {
+            writeString(out, value);
+        }
+        for (String value : values) {
+            writeVarLong(out, value == null ? 0 : dictionary.get(value));
+        }
+    }
+
+    private static String[] readDictionaryColumn(DataInputStream in, int count) throws IOException {
+        long size = readVarLong(in);
+        if (size < 0 || size > count) {
+            throw new IOException("Dictionary of " + size + " values for " + count + " rows in archive segment");
+        }
+        String[] distinct = new String[(int) size + 1];
+        for (int i = 1; i <= size; i++) {
+            distinct[i] = readString(in);
+        }
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = distinct[(int) readVarLong(in)];
+        }
+        return values;
+    }
+
+    // Ids are positive sequence values; 0 stands for null
+    private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+        writeVarLong(out, value == null ? 0 : value + 1);
+    }
+
+    private static Long readNullableLong(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        return value == 0 ? null : value - 1;
+    }
+
+    // UTF-8 bytes prefixed with length + 1; 0 stands for null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("String of " + (length - 1) + " bytes in archive segment");
+        }
+        byte[] bytes = in.readNBytes((int) (length - 1));
+        if (bytes.length != length - 1) {
+            throw new EOFException("Unexpected end of archive segment");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length number in archive segment");
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.config.ExecutorConfig;
+import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans audit events out to live Server-Sent Events subscribers straight from the in-process
+ * pipeline. publish() never blocks: each subscriber has its own bounded buffer drained on the
+ * audit executor, and a subscriber whose buffer overflows, or whose send the executor rejects,
+ * is disconnected as too slow.
+ */
+@Component
+@Slf4j
+public class AuditEventBroadcaster implements DisposableBean {
+
+    private final AppProperties.Audit properties;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // One permit per allowed subscriber, taken before the subscriber is added so the limit holds under concurrent subscribes
+    private final Semaphore slots;
+    private final TaskExecutor senders;
+    private final Counter slowConsumerCounter;
+
+    public AuditEventBroadcaster(AppProperties appProperties, MeterRegistry meterRegistry,
+                                 @Qualifier(ExecutorConfig.AUDIT_EXECUTOR) TaskExecutor senders) {
+        this.properties = appProperties.getAudit();
+        this.senders = senders;
+        this.slots = new Semaphore(properties.getStreamMaxSubscribers());
+        Gauge.builder("audit.stream.subscribers", subscribers, List::size)
+                .register(meterRegistry);
+        this.slowConsumerCounter = Counter.builder("audit.stream.slow.consumers.dropped")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String entityType, Long entityId, String userId) {
+        if (!slots.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many audit stream subscribers, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, entityType, entityId, userId, properties.getStreamBufferSize());
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    // Removal can race (completion, timeout, a failed send, a slow-consumer drop); only the one that wins frees the slot
+    private boolean unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            slots.release();
+            return true;
+        }
+        return false;
+    }
+
+    public void publish(AuditLog auditLog) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.matches(auditLog)) {
+                continue;
+            }
+            if (subscriber.buffer.offer(auditLog)) {
+                subscriber.scheduleSend();
+            } else {
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (unsubscribe(subscriber)) {
+            slowConsumerCounter.increment();
+            log.info("Dropping slow audit stream subscriber after {} buffered events", properties.getStreamBufferSize());
+            subscriber.buffer.clear();
+            // complete() waits on the emitter's lock, which a blocked send may hold; keep that off the publisher
+            try {
+                senders.execute(subscriber.emitter::complete);
+            } catch (TaskRejectedException e) {
+                log.debug("Audit executor saturated; slow subscriber left to time out");
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String entityType;
+        private final Long entityId;
+        private final String userId;
+        private final BlockingQueue<AuditLog> buffer;
+        // Ensures at most one sender works on this subscriber, so events stay in order
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, String entityType, Long entityId, String userId, int bufferSize) {
+            this.emitter = emitter;
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.userId = userId;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        boolean matches(AuditLog auditLog) {
+            return (entityType == null || entityType.equals(auditLog.getEntityType()))
+                    && (entityId == null || Objects.equals(entityId, auditLog.getEntityId()))
+                    && (userId == null || userId.equals(auditLog.getUserId()));
+        }
+
+        void scheduleSend() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (TaskRejectedException e) {
+                    sending.set(false);
+                    disconnect(this);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                AuditLog next;
+                while ((next = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .name("audit")
+                            .data(next, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away (or the emitter already completed); stop feeding it
+                unsubscribe(this);
+                buffer.clear();
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // An event may have arrived between the last poll and releasing the flag
+            if (!buffer.isEmpty()) {
+                scheduleSend();
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.document.AuditActivityRollup;
+import com.example.clb.projecttracker.document.AuditLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Owns the indexes on audit_logs. Every AuditLogRepository finder filters on some fields and
+ * sorts by timestamp descending, so each gets a compound index ending in timestamp (then _id, for
+ * the keyset scroll). At startup the missing indexes are created, the TTL index is reconciled with
+ * app.audit.retention, and a report lists indexes this class doesn't manage or that have never been used.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditLogIndexBootstrapper {
+
+    static final String TIMESTAMP_INDEX = "timestamp_1";
+
+    private final MongoTemplate mongoTemplate;
+    private final AppProperties appProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!appProperties.getAudit().isManageIndexes()) {
+            return;
+        }
+        // Off the startup path, on a daemon thread: an unreachable Mongo must neither delay startup nor hold up shutdown
+        Thread bootstrapper = new Thread(this::ensureIndexes, "audit-index-bootstrap");
+        bootstrapper.setDaemon(true);
+        bootstrapper.start();
+    }
+
+    public void ensureIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(AuditLog.class);
+            List<Index> indexes = managedIndexes();
+            Set<String> managedNames = new HashSet<>();
+            for (Index index : indexes) {
+                String name = (String) index.getIndexOptions().get("name");
+                managedNames.add(name);
+                if (TIMESTAMP_INDEX.equals(name)) {
+                    ensureTimestampIndex(indexOps, index);
+                } else {
+                    indexOps.ensureIndex(index);
+                }
+            }
+            report(indexOps, managedNames);
+
+            // Activity range queries: every query fixes the granularity and a bucketStart range, entityType is optional
+            IndexOperations rollupIndexOps = mongoTemplate.indexOps(AuditActivityRollup.class);
+            rollupIndexOps.ensureIndex(new Index().named("granularity_1_bucketStart_1")
+                    .on("granularity", Sort.Direction.ASC).on("bucketStart", Sort.Direction.ASC));
+            rollupIndexOps.ensureIndex(new Index().named("granularity_1_entityType_1_bucketStart_1")
+                    .on("granularity", Sort.Direction.ASC).on("entityType", Sort.Direction.ASC).on("bucketStart", Sort.Direction.ASC));
+        } catch (DataAccessException e) {
+            log.warn("Could not verify audit_logs indexes: {}", e.getMessage());
+        }
+    }
+
+    private List<Index> managedIndexes() {
+        List<Index> indexes = new ArrayList<>();
+        // findByEntityTypeAndEntityId and the matching scroll; _id breaks timestamp ties in keyset order
+        indexes.add(new Index().named("entityType_1_entityId_1_timestamp_-1__id_-1")
+                .on("entityType", Sort.Direction.ASC).on("entityId", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.DESC).on("_id", Sort.Direction.DESC));
+        // findByEntityType: the index above can't return it in timestamp order, entityId sits in between
+        indexes.add(new Index().named("entityType_1_timestamp_-1__id_-1")
+                .on("entityType", Sort.Direction.ASC).on("timestamp", Sort.Direction.DESC).on("_id", Sort.Direction.DESC));
+        // findByUserId
+        indexes.add(new Index().named("userId_1_timestamp_-1__id_-1")
+                .on("userId", Sort.Direction.ASC).on("timestamp", Sort.Direction.DESC).on("_id", Sort.Direction.DESC));
+        // scrollFieldChanges, e.g. status transitions per project; only documents carrying a diff are indexed
+        indexes.add(new Index().named("projectId_1_changes.field_1_timestamp_-1__id_-1")
+                .on("projectId", Sort.Direction.ASC).on("changes.field", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.DESC).on("_id", Sort.Direction.DESC)
+                .partial(PartialIndexFilter.of(Criteria.where("changes.field").exists(true))));
+        // Unfiltered scroll
+        indexes.add(new Index().named("timestamp_-1__id_-1")
+                .on("timestamp", Sort.Direction.DESC).on("_id", Sort.Direction.DESC));
+        // findByActionType
+        indexes.add(new Index().named("actionType_1_timestamp_-1")
+                .on("actionType", Sort.Direction.ASC).on("timestamp", Sort.Direction.DESC));
+        // findByTimestampBetween and the unfiltered listing; doubles as the TTL index when retention is set
+        Index timestamp = new Index().named(TIMESTAMP_INDEX).on("timestamp", Sort.Direction.ASC);
+        Duration retention = appProperties.getAudit().getRetention();
+        if (retention != null) {
+            timestamp.expire(retention);
+        }
+        indexes.add(timestamp);
+        return indexes;
+    }
+
+    // An existing index can't be re-created with a different TTL, so the expiry is changed in place
+    private void ensureTimestampIndex(IndexOperations indexOps, Index index) {
+        IndexInfo existing = indexOps.getIndexInfo().stream()
+                .filter(info -> TIMESTAMP_INDEX.equals(info.getName()))
+                .findFirst()
+                .orElse(null);
+        Duration retention = appProperties.getAudit().getRetention();
+        if (existing == null) {
+            indexOps.ensureIndex(index);
+            return;
+        }
+        Duration current = existing.getExpireAfter().orElse(null);
+        if (retention == null) {
+            if (current != null) {
+                log.warn("audit_logs still has a {} TTL on timestamp but no retention is configured; drop index {} to keep events forever",
+                        current, TIMESTAMP_INDEX);
+            }
+            return;
+        }
+        if (!retention.equals(current)) {
+            mongoTemplate.getDb().runCommand(new Document("collMod", mongoTemplate.getCollectionName(AuditLog.class))
+                    .append("index", new Document("name", TIMESTAMP_INDEX)
+                            .append("expireAfterSeconds", retention.toSeconds())));
+            log.info("Audit log retention changed from {} to {}", current, retention);
+        }
+    }
+
+    private void report(IndexOperations indexOps, Set<String> managedNames) {
+        Set<String> present = new HashSet<>();
+        for (IndexInfo info : indexOps.getIndexInfo()) {
+            present.add(info.getName());
+            if (!managedNames.contains(info.getName()) && !"_id_".equals(info.getName())) {
+                log.info("audit_logs has unmanaged index {}", info.getName());
+            }
+        }
+        managedNames.stream()
+                .filter(name -> !present.contains(name))
+                .forEach(name -> log.warn("audit_logs is missing index {}", name));
+
+        // Access counters reset on mongod restart, so "unused" means unused since then
+        String collection = mongoTemplate.getCollectionName(AuditLog.class);
+        for (Document stats : mongoTemplate.getCollection(collection)
+                .aggregate(List.of(new Document("$indexStats", new Document())))) {
+            Document accesses = stats.get("accesses", Document.class);
+            Number ops = accesses != null ? accesses.get("ops", Number.class) : null;
+            if (ops != null && ops.longValue() == 0 && !"_id_".equals(stats.getString("name"))) {
+                log.info("audit_logs index {} has not been used since {}", stats.getString("name"), accesses.get("since"));
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.document.AuditLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Buffers audit events and writes them to Mongo in batches from a single drainer thread, one
+ * insertMany per batch.
+ *
+ * By default events wait in a bounded in-memory queue; when it is full they are dropped (after an
+ * optional short wait) rather than letting audit logging stall or exhaust memory. With
+ * app.audit.spool.enabled the events go to an AuditSpool on local disk instead, and the drainer
+ * replays the spool, retrying with backoff while Mongo is unavailable, so nothing is lost to an
+ * outage or a restart.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditActivityRollups activityRollups;
+    private final AppProperties.Audit properties;
+    private final BlockingQueue<AuditLog> queue;
+    private final AuditSpool spool; // null unless the spool is enabled
+
+    private final Counter writtenCounter;
+    private final Counter droppedQueueFullCounter;
+    private final Counter droppedFlushFailedCounter;
+    private final Counter droppedSpoolFullCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    public AuditLogWriter(MongoTemplate mongoTemplate, ObjectMapper objectMapper, AuditActivityRollups activityRollups,
+                          AppProperties appProperties, MeterRegistry meterRegistry) throws IOException {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.activityRollups = activityRollups;
+        this.properties = appProperties.getAudit();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        AppProperties.Spool spoolProperties = properties.getSpool();
+        this.spool = spoolProperties.isEnabled()
+                ? new AuditSpool(Path.of(spoolProperties.getDirectory()), (int) spoolProperties.getSegmentSize().toBytes(),
+                        spoolProperties.getMaxSegments())
+                : null;
+
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        if (spool != null) {
+            Gauge.builder("audit.spool.backlog", spool, AuditSpool::backlogBytes)
+                    .description("Spooled audit data not yet replayed to Mongo")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+        this.writtenCounter = Counter.builder("audit.events.written")
+                .register(meterRegistry);
+        this.droppedQueueFullCounter = Counter.builder("audit.events.dropped")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.droppedFlushFailedCounter = Counter.builder("audit.events.dropped")
+                .tag("reason", "flush_failed")
+                .register(meterRegistry);
+        this.droppedSpoolFullCounter = Counter.builder("audit.events.dropped")
+                .tag("reason", "spool_full")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("Time taken to write one batch of audit events")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues (or spools) an event for writing. Returns false if it was dropped.
+     */
+    public boolean submit(AuditLog auditLog) {
+        if (spool != null) {
+            return spool(auditLog);
+        }
+        boolean accepted;
+        if (properties.getOverflowPolicy() == AppProperties.Audit.OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(auditLog, properties.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(auditLog);
+        }
+        if (!accepted) {
+            droppedQueueFullCounter.increment();
+            log.debug("Audit queue full, dropped {} event for {} {}", auditLog.getActionType(), auditLog.getEntityType(), auditLog.getEntityId());
+        }
+        return accepted;
+    }
+
+    private boolean spool(AuditLog auditLog) {
+        if (auditLog.getId() == null) {
+            // Assigned up front so a batch replayed twice (crash before the checkpoint moved) can't duplicate events
+            auditLog.setId(new ObjectId().toHexString());
+        }
+        try {
+            if (spool.append(objectMapper.writeValueAsString(auditLog))) {
+                return true;
+            }
+            droppedSpoolFullCounter.increment();
+            log.debug("Audit spool full, dropped {} event for {} {}", auditLog.getActionType(), auditLog.getEntityType(), auditLog.getEntityId());
+        } catch (IOException e) {
+            droppedSpoolFullCounter.increment();
+            log.error("Failed to spool audit event: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    private void drain() {
+        int batchSize = properties.getBatchSize();
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        // Keeps going after stop() until whatever was already queued has been written
+        while (running || !queue.isEmpty()) {
+            long deadline = System.nanoTime() + flushIntervalNanos;
+            try {
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    AuditLog next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Not expected (stop() lets the poll time out); flush what we have and re-check running
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<AuditLog> batch) {
+        Timer.Sample sample = Timer.start();
+        try {
+            mongoTemplate.insert(batch, AuditLog.class);
+            writtenCounter.increment(batch.size());
+            activityRollups.record(batch);
+        } catch (RuntimeException e) {
+            droppedFlushFailedCounter.increment(batch.size());
+            log.error("Failed to write {} audit events: {}", batch.size(), e.getMessage());
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    // Spool mode: unlike drain(), stops as soon as running is cleared; whatever is left stays on disk
+    private void replay() {
+        Duration flushInterval = properties.getFlushInterval();
+        Duration backoff = flushInterval;
+        while (running) {
+            try {
+                AuditSpool.Batch batch = spool.read(properties.getBatchSize());
+                if (batch.records().isEmpty()) {
+                    // The read may still have moved past corrupted records
+                    spool.acknowledge(batch.end());
+                    sleep(flushInterval);
+                    continue;
+                }
+                List<AuditLog> events = new ArrayList<>(batch.records().size());
+                for (String record : batch.records()) {
+                    try {
+                        events.add(objectMapper.readValue(record, AuditLog.class));
+                    } catch (JsonProcessingException e) {
+                        log.error("Skipping unreadable spooled audit event: {}", e.getOriginalMessage());
+                    }
+                }
+                if (!events.isEmpty() && !insertIdempotently(events)) {
+                    sleep(backoff);
+                    Duration doubled = backoff.multipliedBy(2);
+                    Duration maxBackoff = properties.getSpool().getMaxRetryBackoff();
+                    backoff = doubled.compareTo(maxBackoff) > 0 ? maxBackoff : doubled;
+                    continue;
+                }
+                spool.acknowledge(batch.end());
+                backoff = flushInterval;
+                if (batch.records().size() < properties.getBatchSize()) {
+                    sleep(flushInterval); // Caught up; let the next batch fill
+                }
+            } catch (IOException e) {
+                log.error("Audit spool read failed: {}", e.getMessage());
+                sleep(backoff);
+            }
+        }
+    }
+
+    // Replays may resend events Mongo already has; duplicate _id errors mean "already written"
+    private boolean insertIdempotently(List<AuditLog> events) {
+        Timer.Sample sample = Timer.start();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AuditLog.class).insert(events).execute();
+            writtenCounter.increment(events.size());
+            activityRollups.record(events);
+            return true;
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY)) {
+                // Events already stored were already counted in the rollups too
+                Set<Integer> duplicates = e.getErrors().stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+                List<AuditLog> inserted = IntStream.range(0, events.size())
+                        .filter(i -> !duplicates.contains(i))
+                        .mapToObj(events::get)
+                        .toList();
+                writtenCounter.increment(inserted.size());
+                activityRollups.record(inserted);
+                return true;
+            }
+            log.warn("Failed to replay {} spooled audit events, will retry: {}", events.size(), e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            log.warn("Failed to replay {} spooled audit events, will retry: {}", events.size(), e.getMessage());
+            return false;
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        drainer = new Thread(spool != null ? this::replay : this::drain, "audit-log-writer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @Override
+    public void stop() {
+        // No interrupt: the drainer notices within one flush interval, and an interrupt could abort an insert
+        running = false;
+        try {
+            drainer.join(properties.getFlushInterval().toMillis() * 5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (spool != null) {
+            spool.close();
+        } else if (!queue.isEmpty()) {
+            log.warn("Shutting down with {} audit events still queued", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Low phase: starts before and stops after the web server and schedulers, so their last events are written
+        return 0;
+    }
+}
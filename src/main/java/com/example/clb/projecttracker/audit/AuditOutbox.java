@@ -0,0 +1,64 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.document.AuditLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds audit events raised inside a transaction until it commits, then hands them to the audit
+ * pipeline in one go; a rollback discards them. Outside a transaction events are dispatched at once.
+ * Pending events are kept on the transaction's own synchronization, so a nested REQUIRES_NEW
+ * transaction gets its own outbox and commits (or rolls back) independently.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditOutbox {
+
+    private final AuditLogWriter auditLogWriter;
+    private final AuditEventBroadcaster auditEventBroadcaster;
+
+    public void add(AuditLog auditLog) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(List.of(auditLog));
+            return;
+        }
+        PendingEvents pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingEvents.class::isInstance)
+                .map(PendingEvents.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingEvents created = new PendingEvents();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    return created;
+                });
+        pending.events.add(auditLog);
+    }
+
+    private void dispatch(List<AuditLog> events) {
+        for (AuditLog event : events) {
+            auditLogWriter.submit(event);
+            auditEventBroadcaster.publish(event);
+        }
+    }
+
+    private class PendingEvents implements TransactionSynchronization {
+
+        private final List<AuditLog> events = new ArrayList<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                dispatch(events);
+            } else {
+                log.debug("Discarding {} audit events from a rolled back transaction", events.size());
+            }
+        }
+    }
+}
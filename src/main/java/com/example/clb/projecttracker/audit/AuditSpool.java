@@ -0,0 +1,273 @@
+package com.example.clb.projecttracker.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, disk-backed log of serialized audit events, split into fixed-size memory-mapped
+ * segment files. Each record is [length][crc32][payload]; a zero length marks the end of the
+ * written part of a segment. A reader walks the log from a persisted checkpoint, and segments
+ * wholly behind the checkpoint are deleted.
+ *
+ * Appends land in the page cache, so they survive a process crash; segments are forced to disk
+ * on rotation and close. All public methods hold one lock: appends and reads are memory copies, and
+ * the slow part (writing to Mongo) happens outside it. The lock is a ReentrantLock rather than a
+ * monitor because appends run on request threads, and a virtual thread doing file I/O inside a
+ * synchronized block would pin its carrier thread.
+ */
+@Slf4j
+public class AuditSpool implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+
+    private long readSegment;
+    private int readOffset;
+    private MappedByteBuffer readBuffer;
+    private long readBufferSegment = -1;
+
+    public AuditSpool(Path directory, int segmentSize, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+
+        List<Long> segments = listSegments();
+        Position checkpoint = readCheckpoint();
+        if (checkpoint != null && segments.contains(checkpoint.segment())) {
+            readSegment = checkpoint.segment();
+            readOffset = checkpoint.offset();
+        } else {
+            readSegment = segments.isEmpty() ? 0 : segments.get(0);
+            readOffset = 0;
+        }
+        writeSegment = segments.isEmpty() ? readSegment : segments.get(segments.size() - 1);
+        writeBuffer = map(writeSegment);
+        writeBuffer.position(endOfRecords(writeBuffer));
+    }
+
+    /**
+     * Appends one record. Returns false if the spool is full (maxSegments unread segments) or the
+     * record can never fit in a segment.
+     */
+    public boolean append(String payload) throws IOException {
+        lock.lock();
+        try {
+            byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+            int recordSize = HEADER_BYTES + bytes.length;
+            if (recordSize > segmentSize - Integer.BYTES) {
+                log.warn("Audit event of {} bytes exceeds the spool segment size and was not spooled", bytes.length);
+                return false;
+            }
+            // Always leave room for a zero length after the last record, so readers find the end
+            if (writeBuffer.remaining() < recordSize + Integer.BYTES) {
+                if (writeSegment + 1 - readSegment + 1 > maxSegments) {
+                    return false;
+                }
+                rotate();
+            }
+            int start = writeBuffer.position();
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            // Payload and checksum go in before the length, which is what makes the record visible
+            writeBuffer.position(start + HEADER_BYTES);
+            writeBuffer.put(bytes);
+            writeBuffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+            writeBuffer.putInt(start, bytes.length);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to max records after the checkpoint without consuming them; pass the batch's
+     * position to acknowledge once the records are stored.
+     */
+    public Batch read(int max) throws IOException {
+        lock.lock();
+        try {
+            List<String> records = new ArrayList<>(max);
+            long segment = readSegment;
+            int offset = readOffset;
+            while (records.size() < max) {
+                MappedByteBuffer buffer = readBufferFor(segment);
+                int length = offset + HEADER_BYTES <= segmentSize ? buffer.getInt(offset) : 0;
+                if (length <= 0 || offset + HEADER_BYTES + length > segmentSize) {
+                    if (segment < writeSegment) {
+                        segment++; // Rest of this segment is unused; carry on in the next one
+                        offset = 0;
+                        continue;
+                    }
+                    break; // Caught up with the writer
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(offset + HEADER_BYTES, bytes);
+                CRC32 crc = new CRC32();
+                crc.update(bytes);
+                if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                    // Corrupted record: its length can't be trusted either, so nothing after it in this segment can be found.
+                    // In the segment being written, fence it off: the writer moves to a new segment so later appends stay readable
+                    log.error("Checksum mismatch in audit spool segment {} at offset {}; skipping the rest of the segment", segment, offset);
+                    if (segment == writeSegment) {
+                        rotate();
+                    }
+                    segment++;
+                    offset = 0;
+                    continue;
+                }
+                records.add(new String(bytes, StandardCharsets.UTF_8));
+                offset += HEADER_BYTES + length;
+            }
+            return new Batch(records, new Position(segment, offset));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the checkpoint to the end of a batch returned by read and deletes segments behind it.
+     * Acknowledging the current checkpoint again is a no-op.
+     */
+    public void acknowledge(Position position) throws IOException {
+        lock.lock();
+        try {
+            if (position.segment() == readSegment && position.offset() == readOffset) {
+                return;
+            }
+            readSegment = position.segment();
+            readOffset = position.offset();
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(temp, position.segment() + " " + position.offset());
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            for (Long segment : listSegments()) {
+                if (segment < readSegment) {
+                    Files.deleteIfExists(segmentPath(segment));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Approximate bytes written but not yet acknowledged
+    public long backlogBytes() {
+        lock.lock();
+        try {
+            return (writeSegment - readSegment) * segmentSize + writeBuffer.position() - readOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            writeBuffer.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rotate() throws IOException {
+        writeBuffer.force();
+        writeSegment++;
+        writeBuffer = map(writeSegment);
+        log.debug("Audit spool rotated to segment {}", writeSegment);
+    }
+
+    private MappedByteBuffer readBufferFor(long segment) throws IOException {
+        if (segment == writeSegment) {
+            return writeBuffer; // Same lock as the writer, so sharing the mapping is safe
+        }
+        if (readBufferSegment != segment) {
+            readBuffer = map(segment);
+            readBufferSegment = segment;
+        }
+        return readBuffer;
+    }
+
+    private MappedByteBuffer map(long segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapping past the end grows the file; new space reads as zeros, i.e. "no record"
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    // Finds where appending should resume after a restart, dropping a torn tail record if there is one
+    private int endOfRecords(MappedByteBuffer buffer) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(offset + HEADER_BYTES, bytes);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                log.warn("Discarding torn audit spool record in segment {} at offset {}", writeSegment, offset);
+                buffer.putInt(offset, 0);
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Position readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        String[] parts = Files.readString(file).trim().split(" ");
+        return new Position(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    public record Position(long segment, int offset) {
+    }
+
+    public record Batch(List<String> records, Position end) {
+    }
+}
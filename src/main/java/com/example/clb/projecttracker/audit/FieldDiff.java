@@ -0,0 +1,46 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.document.FieldChange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Collects the fields an update actually changed, e.g.
+ * {@code FieldDiff.create().compare("status", before.getStatus(), task.getStatus()).changes()}.
+ * Unchanged fields are left out, and long values are cut short so a rewritten description
+ * doesn't bloat every audit document.
+ */
+public final class FieldDiff {
+
+    static final int MAX_VALUE_LENGTH = 200;
+
+    private final List<FieldChange> changes = new ArrayList<>();
+
+    private FieldDiff() {
+    }
+
+    public static FieldDiff create() {
+        return new FieldDiff();
+    }
+
+    public FieldDiff compare(String field, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            changes.add(new FieldChange(field, render(before), render(after)));
+        }
+        return this;
+    }
+
+    public List<FieldChange> changes() {
+        return List.copyOf(changes);
+    }
+
+    private static String render(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value instanceof Enum<?> constant ? constant.name() : value.toString();
+        return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "..." : text;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.clb.projecttracker.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Weighs cached values by the number of rows they hold, so a region bounded by
+ * maximumWeight keeps roughly the same number of DTOs in memory whatever page size clients ask for.
+ */
+public class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    @Override
+    public int weigh(Object key, Object value) {
+        if (value instanceof Slice<?> slice) {
+            return 1 + slice.getNumberOfElements();
+        }
+        if (value instanceof Collection<?> collection) {
+            return 1 + collection.size();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return 1 + map.size();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.clb.projecttracker.cache;
+
+import java.util.Set;
+
+/**
+ * Derives the invalidation tags of a cache entry from its key and value when the entry is stored.
+ */
+@FunctionalInterface
+public interface CacheTagExtractor {
+
+    Set<String> tagsFor(Object key, Object value);
+}
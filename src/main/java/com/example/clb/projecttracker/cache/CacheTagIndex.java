@@ -0,0 +1,71 @@
+package com.example.clb.projecttracker.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index from invalidation tags to the cache keys carrying them, kept per cache region.
+ */
+@Component
+public class CacheTagIndex {
+
+    // cache name -> tag -> keys carrying that tag
+    private final Map<String, Map<String, Set<Object>>> keysByTag = new ConcurrentHashMap<>();
+    // cache name -> key -> tags, used to unlink a key once its entry is gone
+    private final Map<String, Map<Object, Set<String>>> tagsByKey = new ConcurrentHashMap<>();
+
+    public void register(String cacheName, Object key, Set<String> tags) {
+        unregister(cacheName, key);
+        Map<String, Set<Object>> regionKeysByTag = keysByTag.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>());
+        for (String tag : tags) {
+            regionKeysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        tagsByKey.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>()).put(key, Set.copyOf(tags));
+    }
+
+    public void unregister(String cacheName, Object key) {
+        Map<Object, Set<String>> regionTagsByKey = tagsByKey.get(cacheName);
+        Set<String> tags = regionTagsByKey != null ? regionTagsByKey.remove(key) : null;
+        if (tags == null) {
+            return;
+        }
+        Map<String, Set<Object>> regionKeysByTag = keysByTag.get(cacheName);
+        for (String tag : tags) {
+            regionKeysByTag.computeIfPresent(tag, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    public void clear(String cacheName) {
+        keysByTag.remove(cacheName);
+        tagsByKey.remove(cacheName);
+    }
+
+    /**
+     * Returns, per cache region, the keys carrying at least one of the given tags.
+     */
+    public Map<String, Set<Object>> keysTaggedWithAny(Collection<String> tags) {
+        Map<String, Set<Object>> result = new HashMap<>();
+        keysByTag.forEach((cacheName, regionKeysByTag) -> {
+            Set<Object> keys = new HashSet<>();
+            for (String tag : tags) {
+                Set<Object> tagged = regionKeysByTag.get(tag);
+                if (tagged != null) {
+                    keys.addAll(tagged);
+                }
+            }
+            if (!keys.isEmpty()) {
+                result.put(cacheName, keys);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.clb.projecttracker.cache;
+
+/**
+ * Tag vocabulary shared by the cache regions that hold task listings and the services that mutate tasks.
+ */
+public final class CacheTags {
+
+    // Scope of the unfiltered task listing
+    public static final String ALL_TASKS = "tasks:all";
+    // Scope of the overdue task listing
+    public static final String OVERDUE_TASKS = "tasks:overdue";
+
+    private CacheTags() {
+    }
+
+    public static String project(Object projectId) {
+        return "project:" + projectId;
+    }
+
+    public static String developer(Object developerId) {
+        return "developer:" + developerId;
+    }
+}
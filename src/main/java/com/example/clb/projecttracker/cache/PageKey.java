@@ -0,0 +1,18 @@
+package com.example.clb.projecttracker.cache;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Cache key for a paginated query: the non-paging arguments (e.g. a project or developer id)
+ * plus page number, page size and a normalized rendering of the sort.
+ */
+public record PageKey(List<Object> scope, int page, int size, String sort) implements Serializable {
+
+    /**
+     * The entity the page is scoped to, or null for unscoped listings.
+     */
+    public Object scopeId() {
+        return scope.isEmpty() ? null : scope.get(0);
+    }
+}
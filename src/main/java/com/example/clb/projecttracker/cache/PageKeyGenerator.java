@@ -0,0 +1,65 @@
+package com.example.clb.projecttracker.cache;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link PageKey}s for @Cacheable methods taking a {@link Pageable}, so different pages,
+ * sizes and sorts of the same query never share an entry. Also decides which pages are worth
+ * caching at all: only shallow pages of a bounded size, so deep pagination cannot flood a region.
+ */
+@Component("pageKeyGenerator")
+@RequiredArgsConstructor
+public class PageKeyGenerator implements KeyGenerator {
+
+    private final AppProperties appProperties;
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Pageable pageable = Pageable.unpaged();
+        List<Object> scope = new ArrayList<>();
+        for (Object param : params) {
+            if (param instanceof Pageable p) {
+                pageable = p;
+            } else {
+                scope.add(param);
+            }
+        }
+        if (pageable.isUnpaged()) {
+            return new PageKey(scope, -1, -1, normalize(pageable.getSort()));
+        }
+        return new PageKey(scope, pageable.getPageNumber(), pageable.getPageSize(), normalize(pageable.getSort()));
+    }
+
+    /**
+     * Used from @Cacheable conditions: {@code condition = "@pageKeyGenerator.isCacheable(#pageable)"}.
+     */
+    public boolean isCacheable(Pageable pageable) {
+        AppProperties.Cache cacheProperties = appProperties.getCache();
+        return pageable != null
+                && pageable.isPaged()
+                && pageable.getPageNumber() < cacheProperties.getMaxCacheablePage()
+                && pageable.getPageSize() <= cacheProperties.getMaxCacheablePageSize();
+    }
+
+    // "dueDate,asc" and "dueDate: ASC" from different clients map to the same key
+    private String normalize(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        return sort.stream()
+                .map(order -> order.getProperty() + ":" + order.getDirection().name()
+                        + (order.isIgnoreCase() ? ":ic" : "")
+                        + (order.getNullHandling() != Sort.NullHandling.NATIVE ? ":" + order.getNullHandling().name() : ""))
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.clb.projecttracker.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evicts only the cache entries carrying the given tags. Inside a transaction the eviction is
+ * deferred until commit, so a concurrent reader cannot re-cache the pre-commit state.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaggedCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final CacheTagIndex cacheTagIndex;
+
+    public void invalidate(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictTagged(tags);
+                }
+            });
+        } else {
+            evictTagged(tags);
+        }
+    }
+
+    private void evictTagged(Collection<String> tags) {
+        for (Map.Entry<String, Set<Object>> entry : cacheTagIndex.keysTaggedWithAny(tags).entrySet()) {
+            Cache cache = cacheManager.getCache(entry.getKey());
+            if (cache == null) {
+                continue;
+            }
+            entry.getValue().forEach(cache::evict);
+            log.debug("Evicted {} entries from cache '{}' for tags {}", entry.getValue().size(), entry.getKey(), tags);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.clb.projecttracker.cache;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine cache that records the tags of every stored entry in the {@link CacheTagIndex},
+ * so the entry can later be evicted by tag instead of clearing the whole region.
+ */
+public class TaggedCaffeineCache extends CaffeineCache {
+
+    private final CacheTagExtractor tagExtractor;
+    private final CacheTagIndex cacheTagIndex;
+
+    public TaggedCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                               boolean allowNullValues, CacheTagExtractor tagExtractor, CacheTagIndex cacheTagIndex) {
+        super(name, cache, allowNullValues);
+        this.tagExtractor = tagExtractor;
+        this.cacheTagIndex = cacheTagIndex;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return super.get(key, () -> {
+            T value = valueLoader.call();
+            tag(key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        tag(key, value);
+        super.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null) {
+            tag(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        cacheTagIndex.unregister(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = super.evictIfPresent(key);
+        cacheTagIndex.unregister(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        cacheTagIndex.clear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = super.invalidate();
+        cacheTagIndex.clear(getName());
+        return invalidated;
+    }
+
+    private void tag(Object key, Object value) {
+        if (value != null) {
+            cacheTagIndex.register(getName(), key, tagExtractor.tagsFor(key, value));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.clb.projecttracker.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Map;
+
+/**
+ * CaffeineCacheManager that wraps the regions with a registered {@link CacheTagExtractor} in a
+ * {@link TaggedCaffeineCache}; every other region behaves exactly like a plain Caffeine cache.
+ */
+public class TaggingCaffeineCacheManager extends CaffeineCacheManager {
+
+    private final Map<String, CacheTagExtractor> tagExtractors;
+    private final CacheTagIndex cacheTagIndex;
+
+    public TaggingCaffeineCacheManager(Map<String, CacheTagExtractor> tagExtractors, CacheTagIndex cacheTagIndex) {
+        this.tagExtractors = tagExtractors;
+        this.cacheTagIndex = cacheTagIndex;
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        CacheTagExtractor tagExtractor = tagExtractors.get(name);
+        if (tagExtractor == null) {
+            return super.adaptCaffeineCache(name, cache);
+        }
+        return new TaggedCaffeineCache(name, cache, isAllowNullValues(), tagExtractor, cacheTagIndex);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.clb.projecttracker.cache;
+
+import com.example.clb.projecttracker.dto.TaskDto;
+import org.springframework.data.domain.Slice;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Tags a cached page of tasks with the scope it was queried for plus the project and developer
+ * of every row it contains.
+ */
+public class TaskPageTagExtractor implements CacheTagExtractor {
+
+    private final Function<Object, String> scopeTag;
+
+    public TaskPageTagExtractor(Function<Object, String> scopeTag) {
+        this.scopeTag = scopeTag;
+    }
+
+    @Override
+    public Set<String> tagsFor(Object key, Object value) {
+        Set<String> tags = new HashSet<>();
+        tags.add(scopeTag.apply(key));
+        if (value instanceof Slice<?> page) {
+            for (Object row : page.getContent()) {
+                if (row instanceof TaskDto task) {
+                    if (task.getProject() != null) {
+                        tags.add(CacheTags.project(task.getProject().getId()));
+                    }
+                    if (task.getDeveloper() != null) {
+                        tags.add(CacheTags.developer(task.getDeveloper().getId()));
+                    }
+                }
+            }
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.clb.projecttracker.concurrent;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Listens for the JDK's jdk.VirtualThreadPinned flight recorder event while virtual threads are
+ * enabled. Each pinning longer than app.threads.pinned-threshold is timed as
+ * app.threads.virtual.pinned, tagged with the innermost application frame that was blocking, and
+ * the first occurrence per call site is logged with its stack so it can be fixed, usually by
+ * replacing synchronized with a ReentrantLock around the blocking call.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.example.clb.projecttracker.";
+    // Bounds the tag cardinality; later sites share one series
+    private static final int MAX_SITES = 50;
+    private static final String OTHER_SITE = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Set<String> sites = ConcurrentHashMap.newKeySet();
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, AppProperties appProperties) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = appProperties.getThreads().getPinnedThreshold();
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Reporting virtual threads pinned for more than {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            recording.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String site = callSite(event.getStackTrace());
+        boolean firstTime = sites.size() < MAX_SITES && sites.add(site);
+        String tag = sites.contains(site) ? site : OTHER_SITE;
+        Timer.builder("app.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .tag("site", tag)
+                .register(meterRegistry)
+                .record(event.getDuration());
+        if (firstTime) {
+            log.warn("Virtual thread pinned for {} ms at {}; a blocking call inside synchronized or a native frame "
+                    + "holds the carrier thread. Stack:\n{}", event.getDuration().toMillis(), site, describe(event.getStackTrace()));
+        }
+    }
+
+    // Innermost frame in our own code, falling back to the top frame
+    private static String callSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame site = frames.stream()
+                .filter(frame -> frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(frames.get(0));
+        return site.getMethod().getType().getName() + "." + site.getMethod().getName();
+    }
+
+    private static String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "  (no stack trace)";
+        }
+        StringBuilder text = new StringBuilder();
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            text.append("  at ").append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber()).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -2,15 +2,28 @@ package com.example.clb.projecttracker.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @ConfigurationProperties(prefix = "app")
 public class AppProperties {
     private final Auth auth = new Auth();
     private final OAuth2 oauth2 = new OAuth2();
+    private final Cache cache = new Cache();
+    private final TaskImport taskImport = new TaskImport();
+    private final Datasource datasource = new Datasource();
+    private final Audit audit = new Audit();
+    private final Threads threads = new Threads();
+    private final Executors executors = new Executors();
+    private final Notifications notifications = new Notifications();
+    private final Mail mail = new Mail();
+    private final Scheduling scheduling = new Scheduling();
 
     public static class Auth {
         private String tokenSecret;
@@ -55,6 +68,787 @@ public class AppProperties {
         }
     }
 
+    public static class Cache {
+        // Policy applied to any cache region without its own entry in specs
+        private CacheSpec defaults = new CacheSpec();
+        private Map<String, CacheSpec> specs = new LinkedHashMap<>();
+        // Pages at or beyond this (zero-based) number are never cached
+        private int maxCacheablePage = 5;
+        // Pages larger than this are never cached
+        private int maxCacheablePageSize = 100;
+
+        public CacheSpec getDefaults() {
+            return defaults;
+        }
+
+        public void setDefaults(CacheSpec defaults) {
+            this.defaults = defaults;
+        }
+
+        public Map<String, CacheSpec> getSpecs() {
+            return specs;
+        }
+
+        public void setSpecs(Map<String, CacheSpec> specs) {
+            this.specs = specs;
+        }
+
+        public int getMaxCacheablePage() {
+            return maxCacheablePage;
+        }
+
+        public void setMaxCacheablePage(int maxCacheablePage) {
+            this.maxCacheablePage = maxCacheablePage;
+        }
+
+        public int getMaxCacheablePageSize() {
+            return maxCacheablePageSize;
+        }
+
+        public void setMaxCacheablePageSize(int maxCacheablePageSize) {
+            this.maxCacheablePageSize = maxCacheablePageSize;
+        }
+    }
+
+    public static class CacheSpec {
+        // Unset values fall back to app.cache.defaults
+        private Long maximumSize;
+        private Long maximumWeight;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        private Duration refreshAfterWrite;
+        private Boolean recordStats;
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public void setMaximumWeight(Long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public Duration getExpireAfterAccess() {
+            return expireAfterAccess;
+        }
+
+        public void setExpireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+        }
+
+        public Duration getRefreshAfterWrite() {
+            return refreshAfterWrite;
+        }
+
+        public void setRefreshAfterWrite(Duration refreshAfterWrite) {
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+
+        public Boolean getRecordStats() {
+            return recordStats;
+        }
+
+        public void setRecordStats(Boolean recordStats) {
+            this.recordStats = recordStats;
+        }
+    }
+
+    public static class TaskImport {
+        // Rows written per transaction; Hibernate batches the inserts inside it by hibernate.jdbc.batch_size
+        private int chunkSize = 500;
+        private int maxReportedErrors = 100;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxReportedErrors() {
+            return maxReportedErrors;
+        }
+
+        public void setMaxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+    }
+
+    public static class Datasource {
+        // Read-only transactions are routed across these; routing is off while the list is empty
+        private List<Replica> replicas = new ArrayList<>();
+        // Replicas further behind the primary than this are skipped until they catch up
+        private Duration maxReplicaLag = Duration.ofSeconds(5);
+        private Duration lagCheckInterval = Duration.ofSeconds(5);
+        // After a write commits, the same user reads from the primary for this long
+        private Duration readYourWritesWindow = Duration.ofSeconds(10);
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<Replica> replicas) {
+            this.replicas = replicas;
+        }
+
+        public Duration getMaxReplicaLag() {
+            return maxReplicaLag;
+        }
+
+        public void setMaxReplicaLag(Duration maxReplicaLag) {
+            this.maxReplicaLag = maxReplicaLag;
+        }
+
+        public Duration getLagCheckInterval() {
+            return lagCheckInterval;
+        }
+
+        public void setLagCheckInterval(Duration lagCheckInterval) {
+            this.lagCheckInterval = lagCheckInterval;
+        }
+
+        public Duration getReadYourWritesWindow() {
+            return readYourWritesWindow;
+        }
+
+        public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+            this.readYourWritesWindow = readYourWritesWindow;
+        }
+    }
+
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+
+    public static class Audit {
+        private int queueCapacity = 10_000;
+        // A flush happens when this many events are buffered or flushInterval has passed, whichever is first
+        private int batchSize = 500;
+        private Duration flushInterval = Duration.ofSeconds(1);
+        // What logAction does when the queue is full: DROP the event at once, or BLOCK up to blockTimeout first
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+        private Duration blockTimeout = Duration.ofMillis(50);
+        // Create and reconcile the audit_logs indexes at startup
+        private boolean manageIndexes = true;
+        // Audit events older than this are removed by a TTL index; unset keeps them forever
+        private Duration retention;
+        // Live tail (/api/v1/audit-logs/stream): events buffered per subscriber before it is dropped as too slow
+        private int streamBufferSize = 256;
+        private int streamMaxSubscribers = 50;
+        private Duration streamTimeout = Duration.ofMinutes(30);
+        private final Spool spool = new Spool();
+        private final Archive archive = new Archive();
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public Duration getBlockTimeout() {
+            return blockTimeout;
+        }
+
+        public void setBlockTimeout(Duration blockTimeout) {
+            this.blockTimeout = blockTimeout;
+        }
+
+        public boolean isManageIndexes() {
+            return manageIndexes;
+        }
+
+        public void setManageIndexes(boolean manageIndexes) {
+            this.manageIndexes = manageIndexes;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public int getStreamBufferSize() {
+            return streamBufferSize;
+        }
+
+        public void setStreamBufferSize(int streamBufferSize) {
+            this.streamBufferSize = streamBufferSize;
+        }
+
+        public int getStreamMaxSubscribers() {
+            return streamMaxSubscribers;
+        }
+
+        public void setStreamMaxSubscribers(int streamMaxSubscribers) {
+            this.streamMaxSubscribers = streamMaxSubscribers;
+        }
+
+        public Duration getStreamTimeout() {
+            return streamTimeout;
+        }
+
+        public void setStreamTimeout(Duration streamTimeout) {
+            this.streamTimeout = streamTimeout;
+        }
+
+        public Spool getSpool() {
+            return spool;
+        }
+
+        public Archive getArchive() {
+            return archive;
+        }
+
+        public enum OverflowPolicy {
+            DROP,
+            BLOCK
+        }
+    }
+
+    public static class Spool {
+        // When enabled, events are appended to a local disk spool first and replayed to Mongo from there
+        private boolean enabled = false;
+        private String directory = "data/audit-spool";
+        private DataSize segmentSize = DataSize.ofMegabytes(16);
+        // Upper bound on unreplayed segments kept on disk; events are dropped beyond it
+        private int maxSegments = 64;
+        // Longest wait between replay attempts while Mongo keeps failing
+        private Duration maxRetryBackoff = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public int getMaxSegments() {
+            return maxSegments;
+        }
+
+        public void setMaxSegments(int maxSegments) {
+            this.maxSegments = maxSegments;
+        }
+
+        public Duration getMaxRetryBackoff() {
+            return maxRetryBackoff;
+        }
+
+        public void setMaxRetryBackoff(Duration maxRetryBackoff) {
+            this.maxRetryBackoff = maxRetryBackoff;
+        }
+    }
+
+    public static class Archive {
+        // When enabled, audit events older than maxAge are moved out of Mongo into compressed segment files
+        private boolean enabled = false;
+        // Must be shared storage when more than one instance runs, or each only sees what it archived
+        private String directory = "data/audit-archive";
+        private Duration maxAge = Duration.ofDays(90);
+        // Events per segment file; also the batch size read from Mongo per archiving step
+        private int segmentEvents = 50_000;
+        private Duration interval = Duration.ofHours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public int getSegmentEvents() {
+            return segmentEvents;
+        }
+
+        public void setSegmentEvents(int segmentEvents) {
+            this.segmentEvents = segmentEvents;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+
+    public static class Threads {
+        // Virtual threads blocked inside a monitor or native frame for longer than this are reported as pinned
+        private Duration pinnedThreshold = Duration.ofMillis(20);
+
+        public Duration getPinnedThreshold() {
+            return pinnedThreshold;
+        }
+
+        public void setPinnedThreshold(Duration pinnedThreshold) {
+            this.pinnedThreshold = pinnedThreshold;
+        }
+    }
+
+    public static class Notifications {
+        // Overdue tasks read per query by the notification job; at most (notification pool size + queue) chunks are in memory
+        private int chunkSize = 500;
+        // PER_TASK sends one reminder per overdue task; DIGEST sends one message per developer
+        private Mode mode = Mode.PER_TASK;
+        // Overdue tasks are split into this many shards by developer id; each node running the job takes whichever are free
+        private int shards = 1;
+        // Each shard's lock is kept this long after its run, so a node reaching it later in the same day skips it
+        private Duration lockAtLeastFor = Duration.ofHours(23);
+        private final Digest digest = new Digest();
+        private final Queue queue = new Queue();
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public int getShards() {
+            return shards;
+        }
+
+        public void setShards(int shards) {
+            this.shards = shards;
+        }
+
+        public Duration getLockAtLeastFor() {
+            return lockAtLeastFor;
+        }
+
+        public void setLockAtLeastFor(Duration lockAtLeastFor) {
+            this.lockAtLeastFor = lockAtLeastFor;
+        }
+
+        public Digest getDigest() {
+            return digest;
+        }
+
+        public Queue getQueue() {
+            return queue;
+        }
+
+        public enum Mode {
+            PER_TASK,
+            DIGEST
+        }
+    }
+
+    public static class Digest {
+        // One digest per (developer, project) instead of one per developer
+        private boolean groupByProject = false;
+        // Digests are spread over this window after the run, each recipient at a stable offset; zero sends at once
+        private Duration sendWindow = Duration.ofMinutes(30);
+        // Tasks listed in one digest; the rest are summarized as a count
+        private int maxTasksPerDigest = 100;
+
+        public boolean isGroupByProject() {
+            return groupByProject;
+        }
+
+        public void setGroupByProject(boolean groupByProject) {
+            this.groupByProject = groupByProject;
+        }
+
+        public Duration getSendWindow() {
+            return sendWindow;
+        }
+
+        public void setSendWindow(Duration sendWindow) {
+            this.sendWindow = sendWindow;
+        }
+
+        public int getMaxTasksPerDigest() {
+            return maxTasksPerDigest;
+        }
+
+        public void setMaxTasksPerDigest(int maxTasksPerDigest) {
+            this.maxTasksPerDigest = maxTasksPerDigest;
+        }
+    }
+
+    public static class Queue {
+        private Duration pollInterval = Duration.ofSeconds(5);
+        // Jobs claimed per query; they are sent in parallel on the email executor
+        private int batchSize = 20;
+        // A claimed job is handed to another worker if not finished within this time
+        private Duration claimTimeout = Duration.ofMinutes(5);
+        // Attempts before a job is dead-lettered
+        private int maxAttempts = 8;
+        // Retry delay after the first failure, doubled per attempt up to maxBackoff
+        private Duration initialBackoff = Duration.ofSeconds(30);
+        private Duration maxBackoff = Duration.ofHours(1);
+        // Token bucket toward the SMTP relay: sustained rate and how many may go out at once after a quiet spell
+        private double ratePerSecond = 10;
+        private int burst = 20;
+        // Sent jobs are deleted after this long
+        private Duration retention = Duration.ofDays(7);
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getClaimTimeout() {
+            return claimTimeout;
+        }
+
+        public void setClaimTimeout(Duration claimTimeout) {
+            this.claimTimeout = claimTimeout;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public double getRatePerSecond() {
+            return ratePerSecond;
+        }
+
+        public void setRatePerSecond(double ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    public static class Executors {
+        // Sends claimed from the notification queue; CALLER_RUNS makes the queue worker wait for a free sender
+        private final Pool email = new Pool(2, 4, 500, Pool.RejectionPolicy.CALLER_RUNS);
+        // Manually triggered report/notification runs; one at a time and nothing queued, so extra requests are refused at once
+        private final Pool reporting = new Pool(1, 1, 0, Pool.RejectionPolicy.ABORT);
+        // Live audit stream sends; one thread per allowed subscriber (audit.stream-max-subscribers), since a
+        // send blocks until a stalled client times out. A subscriber whose send is rejected is disconnected
+        private final Pool audit = new Pool(50, 50, 1_000, Pool.RejectionPolicy.ABORT);
+        // Chunks of the overdue notification job; CALLER_RUNS makes the reader wait when all workers are busy
+        private final Pool notification = new Pool(4, 4, 4, Pool.RejectionPolicy.CALLER_RUNS);
+
+        public Pool getEmail() {
+            return email;
+        }
+
+        public Pool getReporting() {
+            return reporting;
+        }
+
+        public Pool getAudit() {
+            return audit;
+        }
+
+        public Pool getNotification() {
+            return notification;
+        }
+    }
+
+    public static class Scheduling {
+        // Identifies this instance in scheduler_locks; defaults to host:pid
+        private String nodeId;
+        // A lock whose holder died is taken over after this long; longer than any run
+        private Duration lockAtMostFor = Duration.ofHours(1);
+        // Minimum time a lock is held, covering clock skew and trigger delay between nodes
+        private Duration lockAtLeastFor = Duration.ofMinutes(5);
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        public Duration getLockAtMostFor() {
+            return lockAtMostFor;
+        }
+
+        public void setLockAtMostFor(Duration lockAtMostFor) {
+            this.lockAtMostFor = lockAtMostFor;
+        }
+
+        public Duration getLockAtLeastFor() {
+            return lockAtLeastFor;
+        }
+
+        public void setLockAtLeastFor(Duration lockAtLeastFor) {
+            this.lockAtLeastFor = lockAtLeastFor;
+        }
+    }
+
+    public static class Mail {
+        // Open SMTP sessions; no more than the email executor's max-size are ever used at once
+        private int maxConnections = 4;
+        // Many servers cap messages per session (often 100); the connection is replaced before that
+        private int maxMessagesPerConnection = 100;
+        // Idle connections are closed after this long, before the server times them out
+        private Duration maxIdle = Duration.ofSeconds(30);
+        // How long a send waits for a free connection before failing
+        private Duration borrowTimeout = Duration.ofSeconds(10);
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getMaxMessagesPerConnection() {
+            return maxMessagesPerConnection;
+        }
+
+        public void setMaxMessagesPerConnection(int maxMessagesPerConnection) {
+            this.maxMessagesPerConnection = maxMessagesPerConnection;
+        }
+
+        public Duration getMaxIdle() {
+            return maxIdle;
+        }
+
+        public void setMaxIdle(Duration maxIdle) {
+            this.maxIdle = maxIdle;
+        }
+
+        public Duration getBorrowTimeout() {
+            return borrowTimeout;
+        }
+
+        public void setBorrowTimeout(Duration borrowTimeout) {
+            this.borrowTimeout = borrowTimeout;
+        }
+    }
+
+    public static class Pool {
+        private int coreSize;
+        private int maxSize;
+        // Threads beyond coreSize are only started once this many tasks are waiting
+        private int queueCapacity;
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private RejectionPolicy rejectionPolicy;
+
+        public Pool() {
+        }
+
+        Pool(int coreSize, int maxSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+        public int getCoreSize() {
+            return coreSize;
+        }
+
+        public void setCoreSize(int coreSize) {
+            this.coreSize = coreSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public RejectionPolicy getRejectionPolicy() {
+            return rejectionPolicy;
+        }
+
+        public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+        public enum RejectionPolicy {
+            ABORT,       // Throw TaskRejectedException to the submitter
+            CALLER_RUNS, // Run the task on the submitting thread
+            DISCARD      // Drop the task silently (still counted)
+        }
+    }
+
     public Auth getAuth() {
         return auth;
     }
@@ -62,4 +856,40 @@ public class AppProperties {
     public OAuth2 getOauth2() {
         return oauth2;
     }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public TaskImport getTaskImport() {
+        return taskImport;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public Threads getThreads() {
+        return threads;
+    }
+
+    public Executors getExecutors() {
+        return executors;
+    }
+
+    public Notifications getNotifications() {
+        return notifications;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public Scheduling getScheduling() {
+        return scheduling;
+    }
 }
@@ -0,0 +1,151 @@
+package com.example.clb.projecttracker.config;
+
+import com.example.clb.projecttracker.cache.CacheEntryWeigher;
+import com.example.clb.projecttracker.cache.CacheTagExtractor;
+import com.example.clb.projecttracker.cache.CacheTagIndex;
+import com.example.clb.projecttracker.cache.CacheTags;
+import com.example.clb.projecttracker.cache.PageKey;
+import com.example.clb.projecttracker.cache.TaggingCaffeineCacheManager;
+import com.example.clb.projecttracker.cache.TaskPageTagExtractor;
+import com.example.clb.projecttracker.repository.DeveloperRepository;
+import com.example.clb.projecttracker.repository.TaskRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Replaces the default unbounded ConcurrentMapCacheManager with Caffeine caches whose
+ * size, expiry and statistics are configured per region under app.cache.specs. refreshAfterWrite
+ * only applies to the regions with a loader in refreshLoaders; it is ignored everywhere else.
+ */
+@Configuration
+@Slf4j
+public class CacheConfig {
+
+    // Hard ceiling for regions that configure neither maximumSize nor maximumWeight
+    private static final long FALLBACK_MAXIMUM_SIZE = 1_000;
+
+    @Bean
+    public CacheManager cacheManager(AppProperties appProperties, CacheTagIndex cacheTagIndex,
+                                     ObjectProvider<TaskRepository> taskRepository,
+                                     ObjectProvider<DeveloperRepository> developerRepository) {
+        AppProperties.Cache cacheProperties = appProperties.getCache();
+        AppProperties.CacheSpec defaults = cacheProperties.getDefaults();
+        Map<String, CacheTagExtractor> tagExtractors = tagExtractors();
+        Map<String, CacheLoader<Object, Object>> refreshLoaders = refreshLoaders(taskRepository, developerRepository);
+
+        CaffeineCacheManager cacheManager = new TaggingCaffeineCacheManager(tagExtractors, cacheTagIndex);
+        // Regions that are not listed explicitly are still created on demand, but never unbounded.
+        // They have no loader, so refreshAfterWrite is never applied to them
+        cacheManager.setCaffeine(builderFor(defaults, new AppProperties.CacheSpec()));
+
+        // Tagged and refreshable regions are always registered up front: the former so their eviction
+        // listener knows the region name, the latter so they are built with their loader
+        Map<String, AppProperties.CacheSpec> specs = new LinkedHashMap<>(cacheProperties.getSpecs());
+        tagExtractors.keySet().forEach(name -> specs.putIfAbsent(name, new AppProperties.CacheSpec()));
+        refreshLoaders.keySet().forEach(name -> specs.putIfAbsent(name, new AppProperties.CacheSpec()));
+
+        for (Map.Entry<String, AppProperties.CacheSpec> entry : specs.entrySet()) {
+            String name = entry.getKey();
+            AppProperties.CacheSpec spec = entry.getValue();
+            Caffeine<Object, Object> builder = builderFor(defaults, spec);
+            if (tagExtractors.containsKey(name)) {
+                builder.evictionListener((key, value, cause) -> cacheTagIndex.unregister(name, key));
+            }
+            Duration refreshAfterWrite = firstNonNull(spec.getRefreshAfterWrite(), defaults.getRefreshAfterWrite());
+            CacheLoader<Object, Object> loader = refreshLoaders.get(name);
+            if (refreshAfterWrite != null && loader != null) {
+                cacheManager.registerCustomCache(name, builder.refreshAfterWrite(refreshAfterWrite).build(loader));
+            } else {
+                if (spec.getRefreshAfterWrite() != null) {
+                    log.warn("Ignoring refreshAfterWrite for cache region '{}': only {} can be refreshed", name, refreshLoaders.keySet());
+                }
+                cacheManager.registerCustomCache(name, builder.build());
+            }
+            log.debug("Registered cache region '{}'", name);
+        }
+        return cacheManager;
+    }
+
+    // Task listings are invalidated by tag (see TaskServiceImpl) rather than by clearing whole regions
+    private Map<String, CacheTagExtractor> tagExtractors() {
+        return Map.of(
+                "tasksPage", new TaskPageTagExtractor(key -> CacheTags.ALL_TASKS),
+                "overdueTasksPage", new TaskPageTagExtractor(key -> CacheTags.OVERDUE_TASKS),
+                "tasksByProjectPages", new TaskPageTagExtractor(key -> CacheTags.project(((PageKey) key).scopeId())),
+                "tasksByDeveloperPages", new TaskPageTagExtractor(key -> CacheTags.developer(((PageKey) key).scopeId()))
+        );
+    }
+
+    // Regions refreshed in the background after refreshAfterWrite. Each reload recomputes an entry from its
+    // key exactly as the matching @Cacheable method would; the key is that method's cache key
+    private Map<String, CacheLoader<Object, Object>> refreshLoaders(ObjectProvider<TaskRepository> taskRepository,
+                                                                   ObjectProvider<DeveloperRepository> developerRepository) {
+        return Map.of(
+                "topDevelopers", reloadOnly(key -> (Integer) key <= 0 ? List.of()
+                        : developerRepository.getObject().findTopDevelopersByCompletedTasks(PageRequest.of(0, (Integer) key))),
+                "taskStatusCountsByProject", reloadOnly(key -> taskRepository.getObject().countTasksByStatusForProject((Long) key)),
+                "taskStatusCountsOverall", reloadOnly(key -> taskRepository.getObject().countTasksByStatusOverall())
+        );
+    }
+
+    // CaffeineCache looks a LoadingCache up with get(), so load() must report a miss: the first value
+    // still comes from the @Cacheable method (and its validation); only refreshes use the loader
+    private static CacheLoader<Object, Object> reloadOnly(Function<Object, Object> reload) {
+        return new CacheLoader<>() {
+            @Override
+            public Object load(Object key) {
+                return null;
+            }
+
+            @Override
+            public Object reload(Object key, Object oldValue) {
+                return reload.apply(key);
+            }
+        };
+    }
+
+    private Caffeine<Object, Object> builderFor(AppProperties.CacheSpec defaults, AppProperties.CacheSpec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+
+        // Caffeine accepts either a size or a weight bound, so the most specific one configured wins
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight()).weigher(new CacheEntryWeigher());
+        } else if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        } else if (defaults.getMaximumWeight() != null) {
+            builder.maximumWeight(defaults.getMaximumWeight()).weigher(new CacheEntryWeigher());
+        } else {
+            builder.maximumSize(defaults.getMaximumSize() != null ? defaults.getMaximumSize() : FALLBACK_MAXIMUM_SIZE);
+        }
+
+        Duration expireAfterWrite = firstNonNull(spec.getExpireAfterWrite(), defaults.getExpireAfterWrite());
+        if (expireAfterWrite != null) {
+            builder.expireAfterWrite(expireAfterWrite);
+        }
+        Duration expireAfterAccess = firstNonNull(spec.getExpireAfterAccess(), defaults.getExpireAfterAccess());
+        if (expireAfterAccess != null) {
+            builder.expireAfterAccess(expireAfterAccess);
+        }
+        if (!Boolean.FALSE.equals(firstNonNull(spec.getRecordStats(), defaults.getRecordStats()))) {
+            builder.recordStats();
+        }
+        return builder;
+    }
+
+    private static <T> T firstNonNull(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.clb.projecttracker.config;
+
+import com.example.clb.projecttracker.datasource.ReadYourWritesTracker;
+import com.example.clb.projecttracker.datasource.ReplicaDataSources;
+import com.example.clb.projecttracker.datasource.ReplicaLagMonitor;
+import com.example.clb.projecttracker.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured DataSource with one that routes read-only transactions to the
+ * replicas listed under app.datasource.replicas. Only active when at least one replica is configured;
+ * otherwise Spring Boot's single primary pool is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource", name = "replicas[0].url")
+@Slf4j
+public class DataSourceRoutingConfig {
+
+    // The primary keeps every spring.datasource.* and spring.datasource.hikari.* setting
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaDataSources replicaDataSources(AppProperties appProperties, DataSourceProperties dataSourceProperties) {
+        List<AppProperties.Replica> replicas = appProperties.getDatasource().getReplicas();
+        Map<String, HikariDataSource> dataSources = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            AppProperties.Replica replica = replicas.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            // Don't block startup on a replica that is down; the lag monitor keeps it out of rotation
+            dataSource.setInitializationFailTimeout(-1);
+            dataSources.put(dataSource.getPoolName(), dataSource);
+        }
+        return new ReplicaDataSources(dataSources);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaDataSources replicaDataSources, AppProperties appProperties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSources.asMap(), appProperties.getDatasource().getMaxReplicaLag(), meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(AppProperties appProperties) {
+        return new ReadYourWritesTracker(appProperties.getDatasource().getReadYourWritesWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSources replicaDataSources,
+                                 ReplicaLagMonitor replicaLagMonitor, ReadYourWritesTracker readYourWritesTracker) {
+        Map<Object, Object> targets = new HashMap<>(replicaDataSources.asMap());
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(replicaLagMonitor, readYourWritesTracker);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        log.info("Routing read-only transactions across replicas {}", replicaDataSources.asMap().keySet());
+
+        // Defers the routing decision until the first statement, when the transaction's read-only flag is known.
+        // Fixed defaults (the Postgres ones) keep the proxy from borrowing a connection at startup to detect them.
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routingDataSource);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.clb.projecttracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * One bounded pool per async workload (app.executors.*), so a slow SMTP server can't hold up the
+ * audit stream or a report run, and each one's saturation is visible on its own. Each pool is
+ * injected by name where its work is submitted: email into NotificationQueueWorker for sends,
+ * notification into TaskNotificationScheduler for overdue-task chunks and into
+ * NotificationQueueWorker for queue drains, reporting into
+ * TaskNotificationController for manually triggered runs, and audit into AuditEventBroadcaster
+ * for stream sends, with a thread per allowed subscriber so stalled clients only hold up
+ * themselves.
+ *
+ * Spring Boot binds executor.active, executor.queued, executor.pool.size and friends for every
+ * ThreadPoolTaskExecutor bean, tagged name=&lt;bean name&gt;; rejections are added here as
+ * executor.rejected with the same tag. With these beans present Boot no longer creates its
+ * applicationTaskExecutor, so an @Async method would have to name one of them explicitly.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String REPORTING_EXECUTOR = "reportingExecutor";
+    public static final String AUDIT_EXECUTOR = "auditExecutor";
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+
+    @Bean(EMAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor emailExecutor(AppProperties appProperties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = boundedExecutor(EMAIL_EXECUTOR, "email-", appProperties.getExecutors().getEmail(), meterRegistry);
+        // Claimed notification jobs still finish on shutdown; any left over are reclaimed after the claim timeout
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean(REPORTING_EXECUTOR)
+    public ThreadPoolTaskExecutor reportingExecutor(AppProperties appProperties, MeterRegistry meterRegistry) {
+        return boundedExecutor(REPORTING_EXECUTOR, "reporting-", appProperties.getExecutors().getReporting(), meterRegistry);
+    }
+
+    @Bean(AUDIT_EXECUTOR)
+    public ThreadPoolTaskExecutor auditExecutor(AppProperties appProperties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = boundedExecutor(AUDIT_EXECUTOR, "audit-stream-", appProperties.getExecutors().getAudit(), meterRegistry);
+        // Sends may block on a stalled client; they must never keep the JVM alive
+        executor.setDaemon(true);
+        // Sized to the subscriber limit, so let threads go when the stream is quiet
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean(NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor(AppProperties appProperties, MeterRegistry meterRegistry) {
+        return boundedExecutor(NOTIFICATION_EXECUTOR, "notification-", appProperties.getExecutors().getNotification(), meterRegistry);
+    }
+
+    static ThreadPoolTaskExecutor boundedExecutor(String name, String threadNamePrefix, AppProperties.Pool pool,
+                                                          MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tasks the executor refused because its queue was full")
+                .tag("name", name)
+                .register(meterRegistry);
+        RejectedExecutionHandler policy = switch (pool.getRejectionPolicy()) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+        };
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+        executor.setRejectedExecutionHandler((task, threadPool) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, threadPool);
+        });
+        return executor;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.clb.projecttracker.config;
+
+import com.example.clb.projecttracker.mail.PooledJavaMailSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+/**
+ * Replaces the auto-configured JavaMailSender with a PooledJavaMailSender. Every spring.mail.*
+ * setting is applied the same way Spring Boot would; pooling is tuned with app.mail.*.
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+
+    @Bean
+    public PooledJavaMailSender mailSender(MailProperties mailProperties, AppProperties appProperties, MeterRegistry meterRegistry) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(appProperties.getMail(), meterRegistry);
+        sender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            sender.setPort(mailProperties.getPort());
+        }
+        sender.setUsername(mailProperties.getUsername());
+        sender.setPassword(mailProperties.getPassword());
+        sender.setProtocol(mailProperties.getProtocol());
+        if (mailProperties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
+        }
+        if (!mailProperties.getProperties().isEmpty()) {
+            Properties properties = new Properties();
+            properties.putAll(mailProperties.getProperties());
+            sender.setJavaMailProperties(properties);
+        }
+        return sender;
+    }
+}
@@ -1,16 +1,30 @@
 package com.example.clb.projecttracker.controller;
 
+import com.example.clb.projecttracker.audit.AuditEventBroadcaster;
 import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.document.enums.ActionType;
+import com.example.clb.projecttracker.document.enums.RollupGranularity;
+import com.example.clb.projecttracker.dto.AuditActivityDto;
+import com.example.clb.projecttracker.dto.CursorPageDto;
+import com.example.clb.projecttracker.dto.FieldChangeFilterDto;
 import com.example.clb.projecttracker.service.AuditLogService;
+import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/audit-logs")
@@ -18,6 +32,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuditLogController {
 
     private final AuditLogService auditLogService;
+    private final AuditEventBroadcaster auditEventBroadcaster;
 
     @GetMapping("/all")
     public ResponseEntity<Page<AuditLog>> getAllAuditLogs(
@@ -26,6 +41,63 @@ public class AuditLogController {
         return ResponseEntity.ok(auditLogs);
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll through audit logs with a cursor, newest first",
+               description = "Keyset pagination on (timestamp, id) with optional entityType, entityId and userId filters. No total count is computed; pass nextCursor from the previous response to continue. Archived events are not included; use /range for those.")
+    public ResponseEntity<CursorPageDto<AuditLog>> scrollAuditLogs(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(auditLogService.scrollAuditLogs(entityType, entityId, userId, cursor, size));
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Scroll through changes to one field, newest first",
+               description = "Audit entries whose structured diff touches the given field, e.g. field=status&projectId=1 for every status transition in a project; add 'to' to keep only changes to that value. Paged with a cursor like /scroll.")
+    public ResponseEntity<CursorPageDto<AuditLog>> scrollFieldChanges(
+            @ModelAttribute FieldChangeFilterDto filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(auditLogService.scrollFieldChanges(filter, cursor, size));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Live tail of audit events over Server-Sent Events",
+               description = "Pushes each audit event as it is logged, optionally filtered by entityType, entityId and userId. Subscribers that fall too far behind are disconnected and should reconnect.")
+    public SseEmitter streamAuditLogs(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String userId) {
+        return auditEventBroadcaster.subscribe(entityType, entityId, userId);
+    }
+
+    @GetMapping("/range")
+    @Operation(summary = "Audit logs in a time range, newest first",
+               description = "Events with from <= timestamp < to, optionally for one entityType and/or entityId, at most limit (up to 1000) of them. Ranges older than the archive age are read back from archived segments as well as Mongo; this is the only endpoint that reads the archive.")
+    public ResponseEntity<List<AuditLog>> getAuditLogsInRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditLogService.getAuditLogsInRange(from, to, entityType, entityId, limit));
+    }
+
+    @GetMapping("/activity")
+    @Operation(summary = "Audit activity counts per hour or day",
+               description = "Counts of audit events per time bucket, entity type and action in [from, to), read from pre-aggregated rollups rather than raw audit logs.")
+    public ResponseEntity<List<AuditActivityDto>> getAuditActivity(
+            @RequestParam(defaultValue = "HOUR") RollupGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) ActionType actionType,
+            @RequestParam(required = false) String userId) {
+        return ResponseEntity.ok(auditLogService.getActivity(granularity, from, to, entityType, actionType, userId));
+    }
+
     @GetMapping(params = "entityType")
     public ResponseEntity<Page<AuditLog>> getAuditLogsByEntityType(
             @RequestParam String entityType,
@@ -1,21 +1,31 @@
 package com.example.clb.projecttracker.controller;
 
+import com.example.clb.projecttracker.dto.CursorPageDto;
 import com.example.clb.projecttracker.dto.TaskDto;
+import com.example.clb.projecttracker.dto.TaskExportFilterDto;
+import com.example.clb.projecttracker.dto.TaskImportResultDto;
 import com.example.clb.projecttracker.dto.TaskRequestDto;
 import com.example.clb.projecttracker.dto.TaskStatusCountDto;
+import com.example.clb.projecttracker.exception.BadRequestException;
+import com.example.clb.projecttracker.service.TaskImportService;
 import com.example.clb.projecttracker.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
@@ -25,6 +35,7 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskImportService taskImportService;
 
     @PostMapping("/create")
     public ResponseEntity<TaskDto> createTask(@Valid @RequestBody TaskRequestDto taskRequestDto) {
@@ -33,6 +44,26 @@ public class TaskController {
                 .body(createdTask);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Bulk import tasks from a JSON array",
+               description = "Rows are validated individually and written in chunks; invalid rows are reported without failing the rest of the import.")
+    public ResponseEntity<TaskImportResultDto> importTasksFromJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(taskImportService.importJsonArray(body));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk import tasks from newline-delimited JSON")
+    public ResponseEntity<TaskImportResultDto> importTasksFromNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(taskImportService.importNdjson(body));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Bulk import tasks from CSV",
+               description = "The first line must be a header naming the columns: title, description, status, dueDate, projectId, developerId.")
+    public ResponseEntity<TaskImportResultDto> importTasksFromCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(taskImportService.importCsv(body));
+    }
+
     @GetMapping("/{taskId}")
     public ResponseEntity<TaskDto> getTaskById(@PathVariable Long taskId) {
         TaskDto taskDto = taskService.getTaskById(taskId);
@@ -41,31 +72,80 @@ public class TaskController {
 
     @GetMapping("/all")
     public ResponseEntity<Page<TaskDto>> getAllTasks(
-            @PageableDefault(size = 10, sort = "dueDate") Pageable pageable) {
-        Page<TaskDto> tasks = taskService.getAllTasks(pageable);
+            @PageableDefault(size = 10, sort = "dueDate") Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean includeDescription) {
+        Page<TaskDto> tasks = taskService.getAllTasks(pageable, includeDescription);
         return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/project/{projectId}")
     public ResponseEntity<Page<TaskDto>> getTasksByProjectId(
             @PathVariable Long projectId,
-            @PageableDefault(size = 10, sort = "dueDate") Pageable pageable) {
-        Page<TaskDto> tasks = taskService.getTasksByProjectId(projectId, pageable);
+            @PageableDefault(size = 10, sort = "dueDate") Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean includeDescription) {
+        Page<TaskDto> tasks = taskService.getTasksByProjectId(projectId, pageable, includeDescription);
         return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/developer/{developerId}")
     public ResponseEntity<Page<TaskDto>> getTasksByDeveloperId(
             @PathVariable Long developerId,
-            @PageableDefault(size = 10, sort = "dueDate") Pageable pageable) {
-        Page<TaskDto> tasks = taskService.getTasksByDeveloperId(developerId, pageable);
+            @PageableDefault(size = 10, sort = "dueDate") Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean includeDescription) {
+        Page<TaskDto> tasks = taskService.getTasksByDeveloperId(developerId, pageable, includeDescription);
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/all/scroll")
+    @Operation(summary = "Scroll through all tasks with a cursor",
+               description = "Keyset pagination ordered by due date then id. No total count is computed; pass nextCursor from the previous response to continue.")
+    public ResponseEntity<CursorPageDto<TaskDto>> scrollAllTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taskService.scrollAllTasks(cursor, size));
+    }
+
+    @GetMapping("/project/{projectId}/scroll")
+    @Operation(summary = "Scroll through a project's tasks with a cursor")
+    public ResponseEntity<CursorPageDto<TaskDto>> scrollTasksByProjectId(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taskService.scrollTasksByProjectId(projectId, cursor, size));
+    }
+
+    @GetMapping("/developer/{developerId}/scroll")
+    @Operation(summary = "Scroll through a developer's tasks with a cursor")
+    public ResponseEntity<CursorPageDto<TaskDto>> scrollTasksByDeveloperId(
+            @PathVariable Long developerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taskService.scrollTasksByDeveloperId(developerId, cursor, size));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export matching tasks as NDJSON or CSV",
+               description = "Streams every task matching the optional filters, ordered by id, straight to the response. Use format=csv for CSV; NDJSON is the default.")
+    public void exportTasks(@ModelAttribute TaskExportFilterDto filter,
+                            @RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\"");
+            taskService.exportTasksAsCsv(filter, response.getOutputStream());
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            taskService.exportTasksAsNdjson(filter, response.getOutputStream());
+        } else {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+    }
+
     @GetMapping("/overdue")
     public ResponseEntity<Page<TaskDto>> getOverdueTasks(
-            @PageableDefault(size = 20, sort = "dueDate,asc") Pageable pageable) {
-        Page<TaskDto> overdueTasks = taskService.getOverdueTasks(pageable);
+            @PageableDefault(size = 20, sort = "dueDate,asc") Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean includeDescription) {
+        Page<TaskDto> overdueTasks = taskService.getOverdueTasks(pageable, includeDescription);
         return ResponseEntity.ok(overdueTasks);
     }
 
@@ -1,10 +1,14 @@
 package com.example.clb.projecttracker.controller;
 
+import com.example.clb.projecttracker.config.ExecutorConfig;
+import com.example.clb.projecttracker.exception.ServiceUnavailableException;
 import com.example.clb.projecttracker.scheduler.TaskNotificationScheduler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,23 +17,34 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/api/tasks/notifications")
 @Tag(name = "Task Notification Controller", description = "APIs for managing task notifications")
-@RequiredArgsConstructor
 public class TaskNotificationController {
 
+    private static final String ALREADY_RUNNING = "An overdue task notification run is already in progress, try again later";
+
     private final TaskNotificationScheduler taskNotificationScheduler;
+    private final TaskExecutor reportingExecutor;
+
+    public TaskNotificationController(TaskNotificationScheduler taskNotificationScheduler,
+                                      @Qualifier(ExecutorConfig.REPORTING_EXECUTOR) TaskExecutor reportingExecutor) {
+        this.taskNotificationScheduler = taskNotificationScheduler;
+        this.reportingExecutor = reportingExecutor;
+    }
 
     @PostMapping("/send-overdue")
     @Operation(summary = "Manually trigger sending notifications for overdue tasks",
-               description = "This endpoint invokes the scheduled job that checks for overdue tasks and sends email notifications to assigned developers.")
-    @ApiResponse(responseCode = "200", description = "Overdue task notification job triggered successfully")
-    @ApiResponse(responseCode = "500", description = "Internal server error if the job fails to trigger or during its execution")
+               description = "Starts the job that checks for overdue tasks and sends email notifications to assigned developers on the reporting executor, and returns without waiting for it. Shards held by another node, or run within app.notifications.lock-at-least-for, are skipped.")
+    @ApiResponse(responseCode = "202", description = "Overdue task notification job accepted and started")
+    @ApiResponse(responseCode = "503", description = "A run is already in progress on this node")
     public ResponseEntity<String> triggerOverdueTaskNotifications() {
+        // The daily run uses the scheduler thread, not the reporting executor; a trigger during it would be dropped
+        if (taskNotificationScheduler.isRunning()) {
+            throw new ServiceUnavailableException(ALREADY_RUNNING);
+        }
         try {
-            taskNotificationScheduler.sendOverdueTaskNotifications();
-            return ResponseEntity.ok("Overdue task notification job has been successfully triggered.");
-        } catch (Exception e) {
-            // Log the exception properly in a real application
-            return ResponseEntity.status(500).body("Failed to trigger overdue task notification job: " + e.getMessage());
+            reportingExecutor.execute(taskNotificationScheduler::sendOverdueTaskNotifications);
+        } catch (TaskRejectedException e) {
+            throw new ServiceUnavailableException(ALREADY_RUNNING);
         }
+        return ResponseEntity.accepted().body("Overdue task notification job has been successfully triggered.");
     }
 }
@@ -0,0 +1,66 @@
+package com.example.clb.projecttracker.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users committed a write recently, so their reads stay on the primary until
+ * the replicas have had time to replay it. Requests without an authenticated user are not pinned.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public boolean isPinnedToPrimary() {
+        String user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    // Called from within a read-write transaction; the window starts when it commits
+    public void recordWriteOnCommit() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        boolean registered = TransactionSynchronizationManager.getSynchronizations().stream()
+                .anyMatch(WriteCommitted.class::isInstance);
+        if (!registered) {
+            TransactionSynchronizationManager.registerSynchronization(new WriteCommitted(user));
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private class WriteCommitted implements TransactionSynchronization {
+
+        private final String user;
+
+        WriteCommitted(String user) {
+            this.user = user;
+        }
+
+        @Override
+        public void afterCommit() {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.clb.projecttracker.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The read-replica pools, keyed by pool name. Kept out of the context as individual DataSource
+ * beans so nothing else (Flyway, JPA, health checks) can pick a replica up by type.
+ */
+public class ReplicaDataSources implements DisposableBean {
+
+    private final Map<String, HikariDataSource> pools;
+
+    public ReplicaDataSources(Map<String, HikariDataSource> pools) {
+        this.pools = pools;
+    }
+
+    public Map<String, DataSource> asMap() {
+        return Collections.unmodifiableMap(pools);
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.clb.projecttracker.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls each replica's replication lag and keeps the list of replicas fit to serve reads.
+ * Replicas start out excluded and are admitted on their first successful check.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Zero when the replica has replayed everything it received (an idle primary is not lag)
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final Map<String, DataSource> replicas;
+    private final Duration maxLag;
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+        for (String name : replicas.keySet()) {
+            lagSeconds.put(name, Double.NaN);
+            Gauge.builder("app.datasource.replica.lag", lagSeconds, lags -> lags.getOrDefault(name, Double.NaN))
+                    .description("Replication lag of a read replica; NaN while it is unreachable")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    @Scheduled(fixedDelayString = "#{@appProperties.datasource.lagCheckInterval.toMillis()}")
+    public void checkReplicas() {
+        List<String> healthy = replicas.entrySet().stream()
+                .filter(entry -> isHealthy(entry.getKey(), entry.getValue()))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+        if (!healthy.equals(healthyReplicas)) {
+            log.info("Replicas serving reads changed from {} to {}", healthyReplicas, healthy);
+        }
+        healthyReplicas = healthy;
+    }
+
+    private boolean isHealthy(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            double lag = resultSet.getDouble(1);
+            lagSeconds.put(name, lag);
+            return lag <= maxLag.toMillis() / 1000.0;
+        } catch (SQLException e) {
+            lagSeconds.put(name, Double.NaN);
+            // State changes are logged by checkReplicas; a replica that stays down would log every interval
+            log.debug("Replica '{}' failed its lag check: {}", name, e.getMessage());
+            return false;
+        }
+    }
+}
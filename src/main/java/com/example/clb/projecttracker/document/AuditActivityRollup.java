@@ -0,0 +1,34 @@
+package com.example.clb.projecttracker.document;
+
+import com.example.clb.projecttracker.document.enums.ActionType;
+import com.example.clb.projecttracker.document.enums.RollupGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of audit events in one time bucket for one (entityType, actionType, userId) combination.
+ * Maintained with $inc upserts as audit events are written, so activity charts never scan audit_logs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "audit_activity_rollups")
+public class AuditActivityRollup {
+
+    @Id
+    private String id; // Derived from the bucket and dimensions, so upserts hit the same document
+
+    private RollupGranularity granularity;
+    private LocalDateTime bucketStart;
+    private String entityType;
+    private ActionType actionType;
+    private String userId;
+    private long count;
+}
@@ -9,7 +9,7 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -24,8 +24,10 @@ public class AuditLog {
     private LocalDateTime timestamp;
     private String entityType; // e.g., "Project", "Developer", "Task"
     private Long entityId;     // ID of the JPA entity
+    private Long projectId;    // Project the entity belongs to, for Project and Task events
     private ActionType actionType;
     private String userId;     // User performing the action (e.g., username or ID)
     private String details;    // Can be a JSON string or a simple message
+    private List<FieldChange> changes; // Fields an update changed, before and after; absent when nothing was diffed
 
 }
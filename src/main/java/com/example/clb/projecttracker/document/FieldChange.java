@@ -0,0 +1,19 @@
+package com.example.clb.projecttracker.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One changed field of an audited update. Values are stored as strings so that every field
+ * compares and indexes the same way; null means the field was unset on that side.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FieldChange {
+
+    private String field;
+    private String from;
+    private String to;
+}
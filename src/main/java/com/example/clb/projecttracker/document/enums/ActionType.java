@@ -6,5 +6,6 @@ public enum ActionType {
     DELETED,
     ASSIGNED,    // e.g., Task assigned to Developer
     UNASSIGNED,  // e.g., Task unassigned from Developer
+    IMPORTED,    // e.g., a batch of Tasks created by a bulk import
     VIEWED       // Optional: if we want to log read operations
 }
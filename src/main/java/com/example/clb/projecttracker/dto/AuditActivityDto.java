@@ -0,0 +1,18 @@
+package com.example.clb.projecttracker.dto;
+
+import com.example.clb.projecttracker.document.enums.ActionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditActivityDto {
+    private LocalDateTime bucketStart;
+    private String entityType;
+    private ActionType actionType;
+    private long count; // Summed over users unless the query was filtered by userId
+}
@@ -0,0 +1,21 @@
+package com.example.clb.projecttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One window of a keyset (cursor) paginated listing. Unlike a Page it carries no total count;
+ * pass nextCursor back to fetch the following window.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor; // null on the last window
+}
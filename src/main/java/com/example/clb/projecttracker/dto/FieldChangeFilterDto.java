@@ -0,0 +1,12 @@
+package com.example.clb.projecttracker.dto;
+
+import lombok.Data;
+
+@Data
+public class FieldChangeFilterDto {
+    private String field;      // Required, e.g. "status"
+    private String to;         // Only changes to this value, e.g. "DONE"
+    private Long projectId;
+    private String entityType;
+    private Long entityId;
+}
@@ -0,0 +1,21 @@
+package com.example.clb.projecttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Everything an overdue reminder needs, read in one query without loading entities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueTaskNotificationDto {
+    private Long taskId;
+    private String title;
+    private LocalDate dueDate;
+    private String projectName;
+    private Long developerId;      // Null when the task is unassigned
+    private String developerName;
+    private String developerEmail;
+}
@@ -2,11 +2,13 @@ package com.example.clb.projecttracker.dto;
 
 import com.example.clb.projecttracker.model.enums.TaskStatus;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class TaskDto {
 
     private Long id;
@@ -20,6 +22,26 @@ public class TaskDto {
     private ProjectReferenceDto project; // Simplified reference to the project
     private DeveloperReferenceDto developer; // Simplified reference to the developer, can be null
 
+    // Constructor for JPQL list projections; description is deliberately left out
+    public TaskDto(Long id, String title, TaskStatus status, LocalDate dueDate,
+                   LocalDateTime createdAt, LocalDateTime updatedAt,
+                   Long projectId, String projectName, Long developerId, String developerName) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.dueDate = dueDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.project = new ProjectReferenceDto();
+        this.project.setId(projectId);
+        this.project.setName(projectName);
+        if (developerId != null) {
+            this.developer = new DeveloperReferenceDto();
+            this.developer.setId(developerId);
+            this.developer.setName(developerName);
+        }
+    }
+
     // Inner DTO for Project Reference
     @Data
     public static class ProjectReferenceDto {
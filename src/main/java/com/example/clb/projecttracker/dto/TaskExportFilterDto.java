@@ -0,0 +1,21 @@
+package com.example.clb.projecttracker.dto;
+
+import com.example.clb.projecttracker.model.enums.TaskStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class TaskExportFilterDto {
+    // Every criterion is optional; null means "don't filter on it"
+    private Long projectId;
+    private Long developerId;
+    private TaskStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom; // Inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo; // Inclusive
+}
@@ -0,0 +1,25 @@
+package com.example.clb.projecttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class TaskImportResultDto {
+    private int received;
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>(); // Capped; failed holds the full count
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row; // 1-based position of the record in the uploaded payload
+        private String message;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.clb.projecttracker.mail;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.config.ExecutorConfig;
+import com.example.clb.projecttracker.model.NotificationJob;
+import com.example.clb.projecttracker.model.enums.NotificationJobStatus;
+import com.example.clb.projecttracker.repository.NotificationJobRepository;
+import com.example.clb.projecttracker.scheduler.ClusterLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the notification_jobs queue. Each poll claims due jobs in short transactions using
+ * FOR UPDATE SKIP LOCKED, so any number of workers (threads or application instances) can drain
+ * the queue without blocking one another, and sends them on the email executor. Claimed jobs are
+ * marked SENDING until claim-timeout so a crashed worker's jobs are picked up again.
+ *
+ * Every send first takes a token from a per-instance bucket, so a burst of notifications reaches
+ * the SMTP relay at no more than rate-per-second. Failures are retried with exponential backoff
+ * and jitter; a job is marked DEAD after max-attempts, or at once if the message itself is invalid.
+ *
+ * Draining a backlog can take minutes at that rate, so the poll only hands the drain to the
+ * notification executor and returns, keeping the shared scheduler thread free for other jobs.
+ * At most one drain runs at a time; polls while one is in progress are skipped.
+ */
+@Component
+@Slf4j
+public class NotificationQueueWorker {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String PURGE_LOCK_NAME = "notification-queue-purge";
+
+    private final NotificationJobRepository notificationJobRepository;
+    private final JavaMailSender mailSender;
+    private final TaskExecutor emailExecutor;
+    private final TaskExecutor notificationExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterLock clusterLock;
+    private final AppProperties.Queue properties;
+    private final String fromEmail;
+    private final TokenBucket rateLimiter;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+    private final Timer throttleTimer;
+
+    public NotificationQueueWorker(NotificationJobRepository notificationJobRepository, JavaMailSender mailSender,
+                                   @Qualifier(ExecutorConfig.EMAIL_EXECUTOR) TaskExecutor emailExecutor,
+                                   @Qualifier(ExecutorConfig.NOTIFICATION_EXECUTOR) TaskExecutor notificationExecutor,
+                                   TransactionTemplate transactionTemplate, ClusterLock clusterLock, AppProperties appProperties,
+                                   @Value("${notification.email.from}") String fromEmail, MeterRegistry meterRegistry) {
+        this.notificationJobRepository = notificationJobRepository;
+        this.mailSender = mailSender;
+        this.emailExecutor = emailExecutor;
+        this.notificationExecutor = notificationExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterLock = clusterLock;
+        this.properties = appProperties.getNotifications().getQueue();
+        this.fromEmail = fromEmail;
+        this.rateLimiter = new TokenBucket(properties.getRatePerSecond(), properties.getBurst());
+        this.sentCounter = outcomeCounter(meterRegistry, "sent");
+        this.retriedCounter = outcomeCounter(meterRegistry, "retried");
+        this.deadCounter = outcomeCounter(meterRegistry, "dead");
+        this.throttleTimer = Timer.builder("notifications.queue.throttle")
+                .description("Time sends waited for the SMTP rate limit")
+                .register(meterRegistry);
+        Gauge.builder("notifications.queue.pending", pending, AtomicLong::get)
+                .description("Notification jobs waiting to be sent, as of the last poll")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "#{@appProperties.notifications.queue.pollInterval.toMillis()}",
+               fixedDelayString = "#{@appProperties.notifications.queue.pollInterval.toMillis()}")
+    public void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            notificationExecutor.execute(() -> {
+                try {
+                    drainQueue();
+                } finally {
+                    draining.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            draining.set(false);
+            log.warn("Notification queue drain not started, executor is full; retrying on the next poll");
+        }
+    }
+
+    private void drainQueue() {
+        try {
+            List<NotificationJob> jobs;
+            do {
+                jobs = claim();
+                CompletableFuture.allOf(jobs.stream()
+                                .map(job -> CompletableFuture.runAsync(() -> deliver(job), emailExecutor))
+                                .toArray(CompletableFuture[]::new))
+                        .exceptionally(e -> null)
+                        .join();
+            } while (jobs.size() == properties.getBatchSize());
+            pending.set(notificationJobRepository.countByStatus(NotificationJobStatus.PENDING));
+        } catch (DataAccessException e) {
+            log.error("Notification queue poll failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * ?") // Daily at 3:30 AM
+    public void purgeSent() {
+        clusterLock.runExclusively(PURGE_LOCK_NAME, () -> {
+            int deleted = notificationJobRepository.deleteSentBefore(LocalDateTime.now().minus(properties.getRetention()));
+            if (deleted > 0) {
+                log.info("Purged {} sent notification jobs older than {}", deleted, properties.getRetention());
+            }
+        });
+    }
+
+    private List<NotificationJob> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<NotificationJob> jobs = notificationJobRepository.claimDue(now, properties.getBatchSize());
+            for (NotificationJob job : jobs) {
+                job.setStatus(NotificationJobStatus.SENDING);
+                job.setNextAttemptAt(now.plus(properties.getClaimTimeout()));
+            }
+            return jobs;
+        });
+    }
+
+    private void deliver(NotificationJob job) {
+        try {
+            throttleTimer.record(rateLimiter.acquire(), TimeUnit.NANOSECONDS);
+            mailSender.send(toMimeMessage(job));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Still SENDING; picked up again once the claim times out
+            return;
+        } catch (MessagingException | MailParseException | MailPreparationException e) {
+            fail(job, e, true);
+            return;
+        } catch (MailException e) {
+            fail(job, e, false);
+            return;
+        }
+        notificationJobRepository.markSent(job.getId(), LocalDateTime.now());
+        sentCounter.increment();
+        log.debug("Sent notification job {} to {} after {} attempts", job.getId(), job.getRecipient(), job.getAttempts() + 1);
+    }
+
+    private MimeMessage toMimeMessage(NotificationJob job) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, job.isHtml(), "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(job.getRecipient());
+        helper.setSubject(job.getSubject());
+        helper.setText(job.getBody(), job.isHtml());
+        return mimeMessage;
+    }
+
+    private void fail(NotificationJob job, Exception e, boolean permanent) {
+        int attempts = job.getAttempts() + 1;
+        String error = e.getMessage() != null && e.getMessage().length() > MAX_ERROR_LENGTH
+                ? e.getMessage().substring(0, MAX_ERROR_LENGTH) : e.getMessage();
+        if (permanent || attempts >= properties.getMaxAttempts()) {
+            notificationJobRepository.markFailed(job.getId(), NotificationJobStatus.DEAD, attempts, job.getNextAttemptAt(), error);
+            deadCounter.increment();
+            log.error("Notification job {} to {} dead-lettered after {} attempts: {}", job.getId(), job.getRecipient(), attempts, error);
+            return;
+        }
+        Duration backoff = backoff(attempts);
+        notificationJobRepository.markFailed(job.getId(), NotificationJobStatus.PENDING, attempts, LocalDateTime.now().plus(backoff), error);
+        retriedCounter.increment();
+        log.warn("Notification job {} to {} failed (attempt {}), retrying in {}: {}", job.getId(), job.getRecipient(), attempts, backoff, error);
+    }
+
+    // initial-backoff doubled per attempt, capped at max-backoff, with up to 10% jitter so failed bursts don't retry in step
+    private Duration backoff(int attempts) {
+        Duration max = properties.getMaxBackoff();
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        if (backoff.isNegative() || backoff.compareTo(max) > 0) {
+            backoff = max;
+        }
+        long jitterMillis = ThreadLocalRandom.current().nextLong(backoff.toMillis() / 10 + 1);
+        return backoff.plusMillis(jitterMillis);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notifications.queue.jobs")
+                .description("Notification queue send attempts, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
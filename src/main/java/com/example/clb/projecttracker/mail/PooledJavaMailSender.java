@@ -0,0 +1,229 @@
+package com.example.clb.projecttracker.mail;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JavaMailSenderImpl that keeps authenticated SMTP connections open between sends instead of
+ * opening (and STARTTLS-negotiating) a new session for every message. At most
+ * app.mail.max-connections sessions exist; each send borrows one, and all messages passed to one
+ * send call go over the same session.
+ *
+ * A connection is replaced after app.mail.max-messages-per-connection messages, after any failure
+ * other than a rejected recipient, and once it has been idle for app.mail.max-idle. Connections idle
+ * for more than a few seconds are checked with NOOP before reuse, since the server may have dropped them.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final long VALIDATE_AFTER_IDLE_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final AppProperties.Mail properties;
+    private final Semaphore permits;
+    // Most recently used first, so a quiet period lets the extra connections expire
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+
+    private final Timer sentTimer;
+    private final Timer failedTimer;
+    private final DistributionSummary messagesPerConnection;
+    private final Counter openedCounter;
+    private final MeterRegistry meterRegistry;
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int sent;
+        private long lastUsed = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    public PooledJavaMailSender(AppProperties.Mail properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getMaxConnections(), true);
+        this.meterRegistry = meterRegistry;
+        this.sentTimer = sendTimer(meterRegistry, "sent");
+        this.failedTimer = sendTimer(meterRegistry, "failed");
+        this.messagesPerConnection = DistributionSummary.builder("mail.connection.messages")
+                .description("Messages sent over one SMTP connection before it was closed")
+                .register(meterRegistry);
+        this.openedCounter = Counter.builder("mail.connections.opened")
+                .description("SMTP connections opened and authenticated")
+                .register(meterRegistry);
+        Gauge.builder("mail.connections.idle", idle, BlockingDeque::size)
+                .description("Open SMTP connections waiting to be reused")
+                .register(meterRegistry);
+        Gauge.builder("mail.connections.active", permits, semaphore -> properties.getMaxConnections() - semaphore.availablePermits())
+                .description("SMTP connections currently sending")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        acquirePermit();
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        PooledTransport connection = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage mimeMessage = mimeMessages[i];
+                Object original = originalMessages != null ? originalMessages[i] : mimeMessage;
+                if (connection == null) {
+                    try {
+                        connection = borrow();
+                    } catch (AuthenticationFailedException e) {
+                        throw new MailAuthenticationException(e);
+                    } catch (MessagingException e) {
+                        // Nothing left in this batch can be sent without a connection
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], e);
+                        }
+                        throw new MailSendException("Mail server connection failed", e, failedMessages);
+                    }
+                }
+                long started = System.nanoTime();
+                try {
+                    send(connection.transport, mimeMessage);
+                    connection.sent++;
+                    sentTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                } catch (MessagingException e) {
+                    failedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    failedMessages.put(original, e);
+                    // A rejected recipient leaves the session usable; anything else may have broken it
+                    if (!(e instanceof SendFailedException)) {
+                        close(connection, "error");
+                        connection = null;
+                    }
+                }
+            }
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+            permits.release();
+        }
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    // Same preparation as JavaMailSenderImpl.doSend
+    private static void send(Transport transport, MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // Preserve explicitly specified message id...
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+        Address[] addresses = mimeMessage.getAllRecipients();
+        transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(properties.getBorrowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("No SMTP connection became free within " + properties.getBorrowTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            long idleFor = System.nanoTime() - connection.lastUsed;
+            if (idleFor >= properties.getMaxIdle().toNanos()) {
+                close(connection, "expired");
+            } else if (idleFor >= VALIDATE_AFTER_IDLE_NANOS && !connection.transport.isConnected()) {
+                close(connection, "dropped");
+            } else {
+                return connection;
+            }
+        }
+        PooledTransport opened = new PooledTransport(connectTransport());
+        openedCounter.increment();
+        return opened;
+    }
+
+    private void release(PooledTransport connection) {
+        if (connection.sent >= properties.getMaxMessagesPerConnection()) {
+            close(connection, "exhausted");
+            return;
+        }
+        connection.lastUsed = System.nanoTime();
+        idle.offerFirst(connection);
+    }
+
+    private void close(PooledTransport connection, String reason) {
+        messagesPerConnection.record(connection.sent);
+        Counter.builder("mail.connections.closed")
+                .description("SMTP connections closed, by reason")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    /** Closes connections that have been idle longer than app.mail.max-idle. */
+    @Scheduled(fixedDelayString = "#{@appProperties.mail.maxIdle.toMillis()}")
+    public void evictIdle() {
+        long maxIdle = properties.getMaxIdle().toNanos();
+        Iterator<PooledTransport> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext()) {
+            PooledTransport connection = oldestFirst.next();
+            if (System.nanoTime() - connection.lastUsed >= maxIdle && idle.remove(connection)) {
+                close(connection, "expired");
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection, "shutdown");
+        }
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("mail.send")
+                .description("Time to send one message over an open SMTP connection")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
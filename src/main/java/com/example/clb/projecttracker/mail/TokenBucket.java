@@ -0,0 +1,49 @@
+package com.example.clb.projecttracker.mail;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket rate limiter: tokens refill at ratePerSecond up to burst, and each acquire takes one,
+ * sleeping until it is available. A ReentrantLock rather than synchronized so a waiting virtual
+ * thread doesn't pin its carrier.
+ */
+class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.tokens = burst;
+    }
+
+    /** Takes one token, returning how long the caller had to wait for it in nanoseconds. */
+    long acquire() throws InterruptedException {
+        long started = System.nanoTime();
+        while (true) {
+            long waitNanos;
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return now - started;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            } finally {
+                lock.unlock();
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
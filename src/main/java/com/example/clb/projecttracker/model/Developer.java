@@ -17,7 +17,8 @@ import java.util.Set;
 public class Developer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "developer_seq")
+    @SequenceGenerator(name = "developer_seq", sequenceName = "developers_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Developer name cannot be blank")
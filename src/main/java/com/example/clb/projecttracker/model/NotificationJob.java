@@ -0,0 +1,63 @@
+package com.example.clb.projecttracker.model;
+
+import com.example.clb.projecttracker.model.enums.NotificationJobStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One outgoing email in the durable notification queue (notification_jobs). Rows are claimed by
+ * NotificationQueueWorker and kept after sending until app.notifications.queue.retention passes;
+ * DEAD rows are kept for inspection.
+ */
+@Entity
+@Table(name = "notification_jobs")
+@Data
+public class NotificationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_job_seq")
+    @SequenceGenerator(name = "notification_job_seq", sequenceName = "notification_jobs_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 120)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String body;
+
+    @Column(nullable = false)
+    private boolean html;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationJobStatus status = NotificationJobStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // When a PENDING job is due, or when a SENDING job's claim runs out
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -19,7 +19,8 @@ import java.util.Set;
 public class Project {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_seq")
+    @SequenceGenerator(name = "project_seq", sequenceName = "projects_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Project name cannot be blank")
@@ -0,0 +1,31 @@
+package com.example.clb.projecttracker.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A named cluster-wide lock held by lockedBy until lockedUntil; see ClusterLock.
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Data
+public class SchedulerLock {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+}
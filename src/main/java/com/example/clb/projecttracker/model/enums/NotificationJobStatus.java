@@ -0,0 +1,8 @@
+package com.example.clb.projecttracker.model.enums;
+
+public enum NotificationJobStatus {
+    PENDING, // Waiting for next_attempt_at
+    SENDING, // Claimed by a worker until next_attempt_at; reclaimed after that if the worker died
+    SENT,
+    DEAD     // Gave up after app.notifications.queue.max-attempts, or the message can never be sent
+}
@@ -0,0 +1,43 @@
+package com.example.clb.projecttracker.repository;
+
+import com.example.clb.projecttracker.model.NotificationJob;
+import com.example.clb.projecttracker.model.enums.NotificationJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationJobRepository extends JpaRepository<NotificationJob, Long> {
+
+    // Rows another worker has locked are skipped rather than waited on, so workers never contend
+    @Query(value = "SELECT * FROM notification_jobs WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationJob> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationJob j SET j.status = com.example.clb.projecttracker.model.enums.NotificationJobStatus.SENT, " +
+            "j.attempts = j.attempts + 1, j.sentAt = :sentAt, j.lastError = NULL, j.updatedAt = :sentAt WHERE j.id = :id")
+    int markSent(@Param("id") Long id, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationJob j SET j.status = :status, j.attempts = :attempts, j.nextAttemptAt = :nextAttemptAt, " +
+            "j.lastError = :lastError, j.updatedAt = CURRENT_TIMESTAMP WHERE j.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") NotificationJobStatus status, @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NotificationJob j WHERE j.status = com.example.clb.projecttracker.model.enums.NotificationJobStatus.SENT " +
+            "AND j.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+
+    long countByStatus(NotificationJobStatus status);
+}
@@ -0,0 +1,37 @@
+package com.example.clb.projecttracker.repository;
+
+import com.example.clb.projecttracker.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // Takes an existing lock if it has expired; 1 when this node now holds it
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until, l.lockedAt = :now, l.lockedBy = :node " +
+           "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquire(@Param("name") String name, @Param("node") String node, @Param("now") LocalDateTime now,
+                @Param("until") LocalDateTime until);
+
+    // First use of a lock name; a plain INSERT so a concurrent first use fails on the primary key instead of overwriting
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_locks (name, locked_until, locked_at, locked_by) VALUES (:name, :until, :now, :node)",
+           nativeQuery = true)
+    int create(@Param("name") String name, @Param("node") String node, @Param("now") LocalDateTime now,
+               @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until WHERE l.name = :name AND l.lockedBy = :node AND l.lockedAt = :lockedAt")
+    int release(@Param("name") String name, @Param("node") String node, @Param("lockedAt") LocalDateTime lockedAt,
+                @Param("until") LocalDateTime until);
+}
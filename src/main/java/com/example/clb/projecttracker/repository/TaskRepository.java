@@ -1,31 +1,48 @@
 package com.example.clb.projecttracker.repository;
 
+import com.example.clb.projecttracker.dto.OverdueTaskNotificationDto;
+import com.example.clb.projecttracker.dto.TaskDto;
 import com.example.clb.projecttracker.model.Task;
 import com.example.clb.projecttracker.model.enums.TaskStatus;
 import com.example.clb.projecttracker.dto.TaskStatusCountDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
+    // List queries fetch the project and developer references in the same statement,
+    // since every mapped TaskDto reads their names.
+
+    @Override
+    @EntityGraph(attributePaths = {"project", "developer"})
+    Page<Task> findAll(Pageable pageable);
+
     // Find tasks by project ID (paginated)
+    @EntityGraph(attributePaths = {"project", "developer"})
     Page<Task> findByProjectId(Long projectId, Pageable pageable);
 
     // Find tasks by developer ID (paginated)
+    @EntityGraph(attributePaths = {"project", "developer"})
     Page<Task> findByDeveloperId(Long developerId, Pageable pageable);
 
     // Find tasks by status
     List<Task> findByStatus(TaskStatus status);
 
     // Query for overdue tasks (not COMPLETED or CANCELLED and due date is in the past)
+    @EntityGraph(attributePaths = {"project", "developer"})
     @Query("SELECT t FROM Task t WHERE t.status NOT IN (com.example.clb.projecttracker.model.enums.TaskStatus.COMPLETED, com.example.clb.projecttracker.model.enums.TaskStatus.CANCELLED) AND t.dueDate < CURRENT_DATE")
     Page<Task> findOverdueTasks(Pageable pageable);
 
@@ -51,12 +68,139 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
            "FROM Task t GROUP BY t.status")
     List<TaskStatusCountDto> countTasksByStatusOverall();
 
+    @EntityGraph(attributePaths = {"project", "developer"})
     List<Task> findByProjectId(Long projectId);
 
+    @EntityGraph(attributePaths = {"project", "developer"})
     List<Task> findByDeveloperId(Long developerId);
 
     // Method to find tasks that are overdue and not in a final state (COMPLETED or CANCELLED)
+    @EntityGraph(attributePaths = {"project", "developer"})
     List<Task> findByDueDateBeforeAndStatusNotIn(LocalDate now, List<TaskStatus> excludedStatuses);
 
     long countByStatus(TaskStatus status);
+
+    // --- Summary projections for list views ---
+    // Read straight into TaskDto with one join and without the TEXT description column.
+
+    @Query(value = "SELECT new com.example.clb.projecttracker.dto.TaskDto(t.id, t.title, t.status, t.dueDate, t.createdAt, t.updatedAt, p.id, p.name, d.id, d.name) " +
+                   "FROM Task t JOIN t.project p LEFT JOIN t.developer d",
+           countQuery = "SELECT COUNT(t) FROM Task t")
+    Page<TaskDto> findAllSummaries(Pageable pageable);
+
+    @Query(value = "SELECT new com.example.clb.projecttracker.dto.TaskDto(t.id, t.title, t.status, t.dueDate, t.createdAt, t.updatedAt, p.id, p.name, d.id, d.name) " +
+                   "FROM Task t JOIN t.project p LEFT JOIN t.developer d WHERE p.id = :projectId",
+           countQuery = "SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId")
+    Page<TaskDto> findSummariesByProjectId(@Param("projectId") Long projectId, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.clb.projecttracker.dto.TaskDto(t.id, t.title, t.status, t.dueDate, t.createdAt, t.updatedAt, p.id, p.name, d.id, d.name) " +
+                   "FROM Task t JOIN t.project p JOIN t.developer d WHERE d.id = :developerId",
+           countQuery = "SELECT COUNT(t) FROM Task t WHERE t.developer.id = :developerId")
+    Page<TaskDto> findSummariesByDeveloperId(@Param("developerId") Long developerId, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.clb.projecttracker.dto.TaskDto(t.id, t.title, t.status, t.dueDate, t.createdAt, t.updatedAt, p.id, p.name, d.id, d.name) " +
+                   "FROM Task t JOIN t.project p LEFT JOIN t.developer d " +
+                   "WHERE t.status NOT IN (com.example.clb.projecttracker.model.enums.TaskStatus.COMPLETED, com.example.clb.projecttracker.model.enums.TaskStatus.CANCELLED) AND t.dueDate < CURRENT_DATE",
+           countQuery = "SELECT COUNT(t) FROM Task t WHERE t.status NOT IN (com.example.clb.projecttracker.model.enums.TaskStatus.COMPLETED, com.example.clb.projecttracker.model.enums.TaskStatus.CANCELLED) AND t.dueDate < CURRENT_DATE")
+    Page<TaskDto> findOverdueSummaries(Pageable pageable);
+
+    // --- Overdue reminders, read in (dueDate, id) keyset chunks from the open-tasks partial index ---
+
+    @Query("SELECT new com.example.clb.projecttracker.dto.OverdueTaskNotificationDto(t.id, t.title, t.dueDate, p.name, d.id, d.name, d.email) " +
+           "FROM Task t JOIN t.project p LEFT JOIN t.developer d " +
+           "WHERE t.status NOT IN (com.example.clb.projecttracker.model.enums.TaskStatus.COMPLETED, com.example.clb.projecttracker.model.enums.TaskStatus.CANCELLED) " +
+           "AND t.dueDate < :today AND MOD(COALESCE(d.id, 0), :shardCount) = :shard ORDER BY t.dueDate ASC, t.id ASC")
+    List<OverdueTaskNotificationDto> findOverdueNotifications(@Param("today") LocalDate today, @Param("shard") int shard,
+                                                              @Param("shardCount") int shardCount, Pageable limit);
+
+    @Query("SELECT new com.example.clb.projecttracker.dto.OverdueTaskNotificationDto(t.id, t.title, t.dueDate, p.name, d.id, d.name, d.email) " +
+           "FROM Task t JOIN t.project p LEFT JOIN t.developer d " +
+           "WHERE t.status NOT IN (com.example.clb.projecttracker.model.enums.TaskStatus.COMPLETED, com.example.clb.projecttracker.model.enums.TaskStatus.CANCELLED) " +
+           "AND t.dueDate < :today AND MOD(COALESCE(d.id, 0), :shardCount) = :shard " +
+           "AND (t.dueDate, t.id) > (:dueDate, :id) ORDER BY t.dueDate ASC, t.id ASC")
+    List<OverdueTaskNotificationDto> findOverdueNotificationsAfter(@Param("today") LocalDate today, @Param("shard") int shard,
+                                                                   @Param("shardCount") int shardCount,
+                                                                   @Param("dueDate") LocalDate dueDate, @Param("id") Long id,
+                                                                   Pageable limit);
+
+    // Digest variant: assigned tasks only, grouped by developer through the (developer_id, due_date, id) index
+
+    @Query("SELECT new com.example.clb.projecttracker.dto.OverdueTaskNotificationDto(t.id, t.title, t.dueDate, p.name, d.id, d.name, d.email) " +
+           "FROM Task t JOIN t.project p JOIN t.developer d " +
+           "WHERE t.status NOT IN (com.example.clb.projecttracker.model.enums.TaskStatus.COMPLETED, com.example.clb.projecttracker.model.enums.TaskStatus.CANCELLED) " +
+           "AND t.dueDate < :today AND MOD(d.id, :shardCount) = :shard ORDER BY t.developer.id ASC, t.dueDate ASC, t.id ASC")
+    List<OverdueTaskNotificationDto> findOverdueNotificationsByDeveloper(@Param("today") LocalDate today, @Param("shard") int shard,
+                                                                         @Param("shardCount") int shardCount, Pageable limit);
+
+    @Query("SELECT new com.example.clb.projecttracker.dto.OverdueTaskNotificationDto(t.id, t.title, t.dueDate, p.name, d.id, d.name, d.email) " +
+           "FROM Task t JOIN t.project p JOIN t.developer d " +
+           "WHERE t.status NOT IN (com.example.clb.projecttracker.model.enums.TaskStatus.COMPLETED, com.example.clb.projecttracker.model.enums.TaskStatus.CANCELLED) " +
+           "AND t.dueDate < :today AND MOD(d.id, :shardCount) = :shard " +
+           "AND (t.developer.id, t.dueDate, t.id) > (:developerId, :dueDate, :id) " +
+           "ORDER BY t.developer.id ASC, t.dueDate ASC, t.id ASC")
+    List<OverdueTaskNotificationDto> findOverdueNotificationsByDeveloperAfter(@Param("today") LocalDate today,
+                                                                              @Param("shard") int shard,
+                                                                              @Param("shardCount") int shardCount,
+                                                                              @Param("developerId") Long developerId,
+                                                                              @Param("dueDate") LocalDate dueDate,
+                                                                              @Param("id") Long id, Pageable limit);
+
+    // --- Keyset (seek) pagination ordered by (dueDate, id) ---
+    // Tasks with a due date come first; tasks without one follow, ordered by id.
+    // The Pageable only limits the window size, so no count query is issued.
+
+    @EntityGraph(attributePaths = {"project", "developer"})
+    @Query("SELECT t FROM Task t WHERE t.dueDate IS NOT NULL ORDER BY t.dueDate ASC, t.id ASC")
+    List<Task> findDatedWindow(Pageable limit);
+
+    @EntityGraph(attributePaths = {"project", "developer"})
+    @Query("SELECT t FROM Task t WHERE (t.dueDate, t.id) > (:dueDate, :id) ORDER BY t.dueDate ASC, t.id ASC")
+    List<Task> findDatedWindowAfter(@Param("dueDate") LocalDate dueDate, @Param("id") Long id, Pageable limit);
+
+    @EntityGraph(attributePaths = {"project", "developer"})
+    @Query("SELECT t FROM Task t WHERE t.dueDate IS NULL AND t.id > :id ORDER BY t.id ASC")
+    List<Task> findUndatedWindowAfter(@Param("id") Long id, Pageable limit);
+
+    @EntityGraph(attributePaths = {"project", "developer"})
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.dueDate IS NOT NULL ORDER BY t.dueDate ASC, t.id ASC")
+    List<Task> findDatedWindowByProjectId(@Param("projectId") Long projectId, Pageable limit);
+
+    @EntityGraph(attributePaths = {"project", "developer"})
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND (t.dueDate, t.id) > (:dueDate, :id) ORDER BY t.dueDate ASC, t.id ASC")
+    List<Task> findDatedWindowByProjectIdAfter(@Param("projectId") Long projectId, @Param("dueDate") LocalDate dueDate, @Param("id") Long id, Pageable limit);
+
+    @EntityGraph(attributePaths = {"project", "developer"})
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.dueDate IS NULL AND t.id > :id ORDER BY t.id ASC")
+    List<Task> findUndatedWindowByProjectIdAfter(@Param("projectId") Long projectId, @Param("id") Long id, Pageable limit);
+
+    @EntityGraph(attributePaths = {"project", "developer"})
+    @Query("SELECT t FROM Task t WHERE t.developer.id = :developerId AND t.dueDate IS NOT NULL ORDER BY t.dueDate ASC, t.id ASC")
+    List<Task> findDatedWindowByDeveloperId(@Param("developerId") Long developerId, Pageable limit);
+
+    @EntityGraph(attributePaths = {"project", "developer"})
+    @Query("SELECT t FROM Task t WHERE t.developer.id = :developerId AND (t.dueDate, t.id) > (:dueDate, :id) ORDER BY t.dueDate ASC, t.id ASC")
+    List<Task> findDatedWindowByDeveloperIdAfter(@Param("developerId") Long developerId, @Param("dueDate") LocalDate dueDate, @Param("id") Long id, Pageable limit);
+
+    @EntityGraph(attributePaths = {"project", "developer"})
+    @Query("SELECT t FROM Task t WHERE t.developer.id = :developerId AND t.dueDate IS NULL AND t.id > :id ORDER BY t.id ASC")
+    List<Task> findUndatedWindowByDeveloperIdAfter(@Param("developerId") Long developerId, @Param("id") Long id, Pageable limit);
+
+    // Export cursor: rows are pulled from the driver fetchSize at a time instead of being loaded up front.
+    // Callers must consume the stream inside a transaction and close it.
+    @Query("SELECT t FROM Task t JOIN FETCH t.project p LEFT JOIN FETCH t.developer d " +
+           "WHERE (:projectId IS NULL OR p.id = :projectId) " +
+           "AND (:developerId IS NULL OR d.id = :developerId) " +
+           "AND (:status IS NULL OR t.status = :status) " +
+           "AND (:dueFrom IS NULL OR t.dueDate >= :dueFrom) " +
+           "AND (:dueTo IS NULL OR t.dueDate <= :dueTo) " +
+           "ORDER BY t.id ASC")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Task> streamForExport(@Param("projectId") Long projectId,
+                                 @Param("developerId") Long developerId,
+                                 @Param("status") TaskStatus status,
+                                 @Param("dueFrom") LocalDate dueFrom,
+                                 @Param("dueTo") LocalDate dueTo);
 }
@@ -0,0 +1,103 @@
+package com.example.clb.projecttracker.scheduler;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Runs a piece of work on at most one node of the cluster at a time, using the scheduler_locks
+ * table as the lock. Every node's @Scheduled trigger fires; the first to take the lock runs the
+ * job and the rest skip it.
+ *
+ * The lock is held for the run but released no earlier than app.scheduling.lock-at-least-for
+ * after it was taken, so a node whose clock or trigger lags behind can't start the same run again
+ * once a quick run has finished. A node that dies mid-run holds the lock until
+ * app.scheduling.lock-at-most-for has passed. Times are this JVM's clock, so nodes are expected to
+ * be NTP-synchronised to well within lock-at-least-for.
+ */
+@Component
+@Slf4j
+public class ClusterLock {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final AppProperties.Scheduling properties;
+    private final String nodeId;
+
+    public ClusterLock(SchedulerLockRepository schedulerLockRepository, AppProperties appProperties) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.properties = appProperties.getScheduling();
+        this.nodeId = properties.getNodeId() != null && !properties.getNodeId().isBlank()
+                ? properties.getNodeId() : defaultNodeId();
+        log.info("Scheduled jobs are coordinated across the cluster as node {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /** Runs task if no other node holds the lock; returns whether it ran. */
+    public boolean runExclusively(String name, Runnable task) {
+        return runExclusively(name, properties.getLockAtLeastFor(), task);
+    }
+
+    /**
+     * As {@link #runExclusively(String, Runnable)}, but the lock is held for at least lockAtLeastFor,
+     * for jobs whose run must not repeat within a longer period than app.scheduling.lock-at-least-for.
+     */
+    public boolean runExclusively(String name, Duration lockAtLeastFor, Runnable task) {
+        // Whole milliseconds, so the value read back from the timestamp column matches it exactly on release
+        LocalDateTime lockedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        if (!tryLock(name, lockedAt)) {
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            LocalDateTime earliest = lockedAt.plus(lockAtLeastFor);
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                schedulerLockRepository.release(name, nodeId, lockedAt, now.isAfter(earliest) ? now : earliest);
+            } catch (DataAccessException e) {
+                log.warn("Failed to release scheduler lock {}; it expires on its own: {}", name, e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private boolean tryLock(String name, LocalDateTime now) {
+        LocalDateTime until = now.plus(properties.getLockAtMostFor());
+        try {
+            if (schedulerLockRepository.acquire(name, nodeId, now, until) == 1) {
+                return true;
+            }
+            if (schedulerLockRepository.existsById(name)) {
+                return false;
+            }
+            return schedulerLockRepository.create(name, nodeId, now, until) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false; // Another node created it first
+        } catch (DataAccessException e) {
+            log.error("Could not take scheduler lock {}; skipping this run: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown-host";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
@@ -1,92 +1,337 @@
 package com.example.clb.projecttracker.scheduler;
 
-import com.example.clb.projecttracker.model.Developer;
-import com.example.clb.projecttracker.model.Task;
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.config.ExecutorConfig;
+import com.example.clb.projecttracker.dto.OverdueTaskNotificationDto;
 import com.example.clb.projecttracker.service.EmailService;
 import com.example.clb.projecttracker.service.TaskService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+/**
+ * Sends overdue task reminders. Overdue tasks are read in keyset chunks, each a single query that
+ * already carries the project and developer columns, and every chunk is handed to the
+ * notification executor while the next one is read. The executor's bounded queue and
+ * caller-runs policy cap how many chunks are in memory at once.
+ *
+ * In DIGEST mode (app.notifications.mode) tasks are read in developer order instead and each
+ * developer gets one message listing all of their overdue tasks, optionally one per project.
+ * Digests are queued to go out over app.notifications.digest.send-window, each recipient at an
+ * offset derived from its address, so the SMTP server sees a steady trickle rather than a burst.
+ *
+ * Every node's trigger fires, but each run is split into app.notifications.shards shards by
+ * developer id and a node only processes the shards whose ClusterLock it takes, so every task is
+ * handled once cluster-wide while several nodes can share a large run. A shard's lock is kept for
+ * app.notifications.lock-at-least-for after its run, so a node that reaches the shard later in the
+ * day, after working through the others, doesn't run it again.
+ *
+ * Metrics: notifications.overdue.tasks{outcome=sent|failed|skipped} for throughput,
+ * notifications.overdue.digests{outcome=sent|failed} for digest messages queued,
+ * notifications.overdue.progress for tasks handled by the current run, and the
+ * notifications.overdue.chunk and notifications.overdue.run timers.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TaskNotificationScheduler {
 
+    private static final String LOCK_NAME = "overdue-task-notifications";
+
     private final TaskService taskService;
     private final EmailService emailService;
+    private final TaskExecutor notificationExecutor;
+    private final ClusterLock clusterLock;
+    private final AppProperties.Notifications properties;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger progress = new AtomicInteger();
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter skippedCounter;
+    private final Counter digestsSentCounter;
+    private final Counter digestsFailedCounter;
+    private final Timer chunkTimer;
+    private final Timer runTimer;
+
+    public TaskNotificationScheduler(TaskService taskService, EmailService emailService,
+                                     @Qualifier(ExecutorConfig.NOTIFICATION_EXECUTOR) TaskExecutor notificationExecutor,
+                                     ClusterLock clusterLock, AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.taskService = taskService;
+        this.emailService = emailService;
+        this.notificationExecutor = notificationExecutor;
+        this.clusterLock = clusterLock;
+        this.properties = appProperties.getNotifications();
+        this.chunkSize = properties.getChunkSize();
+        this.sentCounter = outcomeCounter(meterRegistry, "notifications.overdue.tasks", "sent");
+        this.failedCounter = outcomeCounter(meterRegistry, "notifications.overdue.tasks", "failed");
+        this.skippedCounter = outcomeCounter(meterRegistry, "notifications.overdue.tasks", "skipped");
+        this.digestsSentCounter = outcomeCounter(meterRegistry, "notifications.overdue.digests", "sent");
+        this.digestsFailedCounter = outcomeCounter(meterRegistry, "notifications.overdue.digests", "failed");
+        this.chunkTimer = Timer.builder("notifications.overdue.chunk")
+                .description("Time to process one chunk of overdue tasks")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("notifications.overdue.run")
+                .description("Duration of a whole overdue notification run")
+                .register(meterRegistry);
+        Gauge.builder("notifications.overdue.progress", progress, AtomicInteger::get)
+                .description("Overdue tasks handled so far by the current (or last) run")
+                .register(meterRegistry);
+    }
 
     // Schedule to run daily at 8:00 AM. Cron format: second, minute, hour, day of month, month, day(s) of week
     // For testing, you might want a more frequent schedule, e.g., every 5 minutes: "0 */5 * * * ?"
     // Or every minute: "0 * * * * ?"
     @Scheduled(cron = "0 0 8 * * ?") // Daily at 8 AM
     // @Scheduled(cron = "0 * * * * ?") // For testing: runs every minute
-    @Transactional(readOnly = true)
     public void sendOverdueTaskNotifications() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Overdue task notification run already in progress; skipping this one");
+            return;
+        }
+        try {
+            runTimer.record(this::processOverdueTasks);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** Whether a run is in progress on this node, whether scheduled or manually triggered. */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void processOverdueTasks() {
         log.info("Running scheduled job: Send Overdue Task Notifications");
-        List<Task> overdueTasks;
+        progress.set(0);
+        int shards = Math.max(1, properties.getShards());
+        // Nodes start at different shards so they don't all contend for the same lock first
+        int first = Math.floorMod(clusterLock.getNodeId().hashCode(), shards);
+        int processed = 0;
+        for (int i = 0; i < shards; i++) {
+            int shard = (first + i) % shards;
+            String lockName = shards == 1 ? LOCK_NAME : LOCK_NAME + ":" + shard + "/" + shards;
+            if (clusterLock.runExclusively(lockName, properties.getLockAtLeastFor(), () -> processShard(shard, shards))) {
+                processed++;
+            }
+        }
+        if (processed == 0) {
+            log.info("Overdue task notifications already handled by another node; skipping this run");
+        }
+    }
+
+    private void processShard(int shard, int shards) {
+        RunTally tally = new RunTally();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        long started = System.nanoTime();
 
         try {
-            overdueTasks = taskService.findOverdueTasksForNotification();
-            log.debug("Successfully retrieved overdue tasks from database");
+            if (properties.getMode() == AppProperties.Notifications.Mode.DIGEST) {
+                readDigestChunks(today, shard, shards, tally, chunks);
+            } else {
+                readChunks(today, shard, shards, tally, chunks);
+            }
         } catch (Exception e) {
-            log.error("Failed to retrieve overdue tasks: {}", e.getMessage(), e);
-            return;
+            log.error("Failed to retrieve overdue tasks for shard {}/{} after {} chunks: {}", shard, shards, chunks.size(), e.getMessage(), e);
         }
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
 
-        if (overdueTasks.isEmpty()) {
-            log.info("No overdue tasks found.");
+        int total = tally.sent.get() + tally.failed.get() + tally.skipped.get();
+        if (total == 0) {
+            log.info("No overdue tasks found in shard {}/{}.", shard, shards);
             return;
         }
+        double seconds = Math.max((System.nanoTime() - started) / 1e9, 0.001);
+        log.info("Finished processing overdue task notifications for shard {}/{}. Total: {}, Success: {}, Failed: {}, Skipped: {} ({} chunks, {} tasks/s)",
+                shard, shards, total, tally.sent.get(), tally.failed.get(), tally.skipped.get(), chunks.size(), Math.round(total / seconds));
+        if (tally.digests.get() > 0) {
+            log.info("{} overdue task digests queued over the next {}", tally.digests.get(), properties.getDigest().getSendWindow());
+        }
+    }
 
-        log.info("Found {} overdue tasks. Preparing notifications...", overdueTasks.size());
+    private void readChunks(LocalDate today, int shard, int shards, RunTally tally, List<CompletableFuture<Void>> chunks) {
+        OverdueTaskNotificationDto last = null;
+        List<OverdueTaskNotificationDto> chunk;
+        do {
+            chunk = taskService.findOverdueNotificationChunk(today, shard, shards, last, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            last = chunk.get(chunk.size() - 1);
+            List<OverdueTaskNotificationDto> batch = chunk;
+            chunks.add(CompletableFuture.runAsync(() -> chunkTimer.record(() -> processChunk(batch, tally)), notificationExecutor));
+        } while (chunk.size() == chunkSize);
+    }
+
+    // Only whole developers are handed on; a developer running past the end of a chunk waits for the next one
+    private void readDigestChunks(LocalDate today, int shard, int shards, RunTally tally, List<CompletableFuture<Void>> chunks) {
+        LocalDateTime sendBase = LocalDateTime.now();
+        OverdueTaskNotificationDto last = null;
+        List<OverdueTaskNotificationDto> pending = new ArrayList<>();
+        List<OverdueTaskNotificationDto> chunk;
+        do {
+            chunk = taskService.findOverdueNotificationChunkByDeveloper(today, shard, shards, last, chunkSize);
+            pending.addAll(chunk);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            last = chunk.get(chunk.size() - 1);
+            int split = pending.size();
+            if (chunk.size() == chunkSize) {
+                while (split > 0 && pending.get(split - 1).getDeveloperId().equals(last.getDeveloperId())) {
+                    split--;
+                }
+            }
+            if (split > 0) {
+                List<OverdueTaskNotificationDto> batch = List.copyOf(pending.subList(0, split));
+                pending = new ArrayList<>(pending.subList(split, pending.size()));
+                chunks.add(CompletableFuture.runAsync(() -> chunkTimer.record(() -> processDigestChunk(batch, tally, sendBase)),
+                        notificationExecutor));
+            }
+        } while (chunk.size() == chunkSize);
+        if (!pending.isEmpty()) {
+            List<OverdueTaskNotificationDto> batch = pending;
+            chunks.add(CompletableFuture.runAsync(() -> chunkTimer.record(() -> processDigestChunk(batch, tally, sendBase)),
+                    notificationExecutor));
+        }
+    }
+
+    private void processDigestChunk(List<OverdueTaskNotificationDto> chunk, RunTally tally, LocalDateTime sendBase) {
+        boolean byProject = properties.getDigest().isGroupByProject();
+        Map<String, List<OverdueTaskNotificationDto>> digests = chunk.stream()
+                .collect(Collectors.groupingBy(
+                        task -> byProject ? task.getDeveloperId() + "/" + task.getProjectName() : String.valueOf(task.getDeveloperId()),
+                        LinkedHashMap::new, Collectors.toList()));
+        for (List<OverdueTaskNotificationDto> tasks : digests.values()) {
+            OverdueTaskNotificationDto first = tasks.get(0);
+            String email = first.getDeveloperEmail();
+            if (email == null || email.isBlank()) {
+                log.debug("Skipping digest for developer ID {}: no email address.", first.getDeveloperId());
+                tally.skipped.addAndGet(tasks.size());
+                skippedCounter.increment(tasks.size());
+                continue;
+            }
+            String subject = byProject
+                    ? String.format("Overdue Tasks Digest: %d in %s", tasks.size(), first.getProjectName())
+                    : String.format("Overdue Tasks Digest: %d tasks", tasks.size());
+            String body = renderDigest(first.getDeveloperName(), tasks);
+            Duration offset = sendOffset(byProject ? email + "/" + first.getProjectName() : email);
+            try {
+                emailService.scheduleSimpleMessage(email, subject, body, sendBase.plus(offset));
+                log.debug("Queued overdue digest with {} tasks to {} for {}", tasks.size(), email, sendBase.plus(offset));
+                tally.sent.addAndGet(tasks.size());
+                tally.digests.incrementAndGet();
+                sentCounter.increment(tasks.size());
+                digestsSentCounter.increment();
+            } catch (Exception e) {
+                log.error("Failed to queue overdue digest for {}: {}", email, e.getMessage(), e);
+                tally.failed.addAndGet(tasks.size());
+                failedCounter.increment(tasks.size());
+                digestsFailedCounter.increment();
+            }
+        }
+        int done = progress.addAndGet(chunk.size());
+        log.info("Overdue task notifications: {} tasks processed so far", done);
+    }
 
-        int successCount = 0;
-        int failureCount = 0;
-        int skippedCount = 0;
+    private String renderDigest(String developerName, List<OverdueTaskNotificationDto> tasks) {
+        int listed = Math.min(tasks.size(), properties.getDigest().getMaxTasksPerDigest());
+        StringBuilder body = new StringBuilder()
+                .append("Dear ").append(developerName).append(",\n\n")
+                .append(tasks.size() == 1
+                        ? "This is a reminder that the following task assigned to you is overdue:\n\n"
+                        : "This is a reminder that the following " + tasks.size() + " tasks assigned to you are overdue:\n\n");
+        for (OverdueTaskNotificationDto task : tasks.subList(0, listed)) {
+            body.append(String.format("- [#%d] %s (Project: %s, Due: %s)%n",
+                    task.getTaskId(),
+                    task.getTitle(),
+                    task.getProjectName() != null ? task.getProjectName() : "N/A",
+                    task.getDueDate() != null ? task.getDueDate().toString() : "N/A"));
+        }
+        if (tasks.size() > listed) {
+            body.append("...and ").append(tasks.size() - listed).append(" more.\n");
+        }
+        return body.append("\nPlease update their status or complete them as soon as possible.\n\n")
+                .append("Thank you,\nBest Regards")
+                .toString();
+    }
 
-        for (Task task : overdueTasks) {
-            Developer developer = task.getDeveloper(); // Assumes Developer is eagerly fetched or accessible
-            if (developer != null && developer.getEmail() != null && !developer.getEmail().isBlank()) {
+    // Same recipient, same slot every day; spreads recipients evenly over the window
+    private Duration sendOffset(String recipientKey) {
+        long windowMillis = properties.getDigest().getSendWindow().toMillis();
+        return windowMillis <= 0 ? Duration.ZERO : Duration.ofMillis(Math.floorMod(recipientKey.hashCode(), windowMillis));
+    }
+
+    private void processChunk(List<OverdueTaskNotificationDto> chunk, RunTally tally) {
+        for (OverdueTaskNotificationDto task : chunk) {
+            if (task.getDeveloperEmail() != null && !task.getDeveloperEmail().isBlank()) {
                 String subject = "Overdue Task Reminder: " + task.getTitle();
                 String body = String.format(
                         "Dear %s,\n\n" +
                                 "This is a reminder that the following task assigned to you is overdue:\n\n" +
                                 "Task ID: %d\n" +
                                 "Title: %s\n" +
-                                "Project: %s\n" + // Assumes Project is eagerly fetched or accessible
+                                "Project: %s\n" +
                                 "Due Date: %s\n\n" +
                                 "Please update its status or complete it as soon as possible.\n\n" +
                                 "Thank you,\nBest Regards",
-                        developer.getName(),
-                        task.getId(),
+                        task.getDeveloperName(),
+                        task.getTaskId(),
                         task.getTitle(),
-                        task.getProject() != null ? task.getProject().getName() : "N/A",
+                        task.getProjectName() != null ? task.getProjectName() : "N/A",
                         task.getDueDate() != null ? task.getDueDate().toString() : "N/A"
                 );
 
                 try {
-                    // Ensure your EmailService is in com.example.clb.projecttracker.service.email
-                    // If it's in com.example.clb.projecttracker.service, adjust the import above.
-                    emailService.sendSimpleMessage(developer.getEmail(), subject, body);
-                    log.info("Sent overdue task notification for task ID {} to {}", task.getId(), developer.getEmail());
-                    successCount++;
+                    emailService.sendSimpleMessage(task.getDeveloperEmail(), subject, body);
+                    log.debug("Sent overdue task notification for task ID {} to {}", task.getTaskId(), task.getDeveloperEmail());
+                    tally.sent.incrementAndGet();
+                    sentCounter.increment();
                 } catch (Exception e) {
-                    log.error("Failed to send notification for task ID {} to {}: {}", task.getId(), developer.getEmail(), e.getMessage(), e);
-                    // Consider implementing a retry mechanism or queuing failed notifications for later retry
-                    // For now, we'll just continue processing other tasks
-                    failureCount++;
+                    log.error("Failed to send notification for task ID {} to {}: {}", task.getTaskId(), task.getDeveloperEmail(), e.getMessage(), e);
+                    tally.failed.incrementAndGet();
+                    failedCounter.increment();
                 }
             } else {
-                log.warn("Skipping notification for task ID {}: No developer assigned or developer has no email.", task.getId());
-                skippedCount++;
+                log.debug("Skipping notification for task ID {}: No developer assigned or developer has no email.", task.getTaskId());
+                tally.skipped.incrementAndGet();
+                skippedCounter.increment();
             }
         }
-        log.info("Finished processing overdue task notifications. Total: {}, Success: {}, Failed: {}, Skipped: {}", 
-                 overdueTasks.size(), successCount, failureCount, skippedCount);
+        int done = progress.addAndGet(chunk.size());
+        log.info("Overdue task notifications: {} tasks processed so far", done);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder(name)
+                .description("Overdue tasks or digests handled by the notification job")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class RunTally {
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger digests = new AtomicInteger();
     }
 }
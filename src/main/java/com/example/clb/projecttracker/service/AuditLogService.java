@@ -1,17 +1,42 @@
 package com.example.clb.projecttracker.service;
 
 import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.document.FieldChange;
 import com.example.clb.projecttracker.document.enums.ActionType;
+import com.example.clb.projecttracker.document.enums.RollupGranularity;
+import com.example.clb.projecttracker.dto.AuditActivityDto;
+import com.example.clb.projecttracker.dto.CursorPageDto;
+import com.example.clb.projecttracker.dto.FieldChangeFilterDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface AuditLogService {
 
     void logAction(String entityType, Long entityId, ActionType actionType, String userId, String details);
 
+    // Same, tagged with the owning project and the fields the action changed; either may be null
+    void logAction(String entityType, Long entityId, Long projectId, ActionType actionType, String userId, String details,
+                   List<FieldChange> changes);
+
     // Methods for retrieving logs - to be used by AuditLogController later
     Page<AuditLog> getAllAuditLogs(Pageable pageable);
     Page<AuditLog> getAuditLogsByEntityType(String entityType, Pageable pageable);
     Page<AuditLog> getAuditLogsByEntityId(String entityType, Long entityId, Pageable pageable);
     Page<AuditLog> getAuditLogsByUserId(String userId, Pageable pageable);
+
+    // Keyset pagination, newest first, ordered by (timestamp, id); filters are optional and no total is counted
+    CursorPageDto<AuditLog> scrollAuditLogs(String entityType, Long entityId, String userId, String cursor, int size);
+
+    // Entries that changed the given field, e.g. every status transition in a project, scrolled like scrollAuditLogs
+    CursorPageDto<AuditLog> scrollFieldChanges(FieldChangeFilterDto filter, String cursor, int size);
+
+    // Events in [from, to), newest first; ranges reaching past the archive age are also read from archived segments
+    List<AuditLog> getAuditLogsInRange(LocalDateTime from, LocalDateTime to, String entityType, Long entityId, int limit);
+
+    // Event counts per bucket in [from, to), answered from the pre-aggregated rollups; filters are optional
+    List<AuditActivityDto> getActivity(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                       String entityType, ActionType actionType, String userId);
 }
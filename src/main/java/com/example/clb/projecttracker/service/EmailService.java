@@ -1,8 +1,11 @@
 package com.example.clb.projecttracker.service;
 
 
+import java.time.LocalDateTime;
+
 /**
- * Service interface for sending emails.
+ * Service interface for sending emails. Messages are queued durably and sent by the
+ * notification queue worker, which retries failures.
  */
 public interface EmailService {
 
@@ -11,4 +14,8 @@ public interface EmailService {
 
 
     void sendHtmlMessage(String to, String subject, String htmlBody);
-}
\ No newline at end of file
+
+
+    /** Queues a plain-text message that is not sent before sendAt. */
+    void scheduleSimpleMessage(String to, String subject, String body, LocalDateTime sendAt);
+}
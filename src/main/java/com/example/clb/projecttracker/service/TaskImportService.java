@@ -0,0 +1,20 @@
+package com.example.clb.projecttracker.service;
+
+import com.example.clb.projecttracker.dto.TaskImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for bulk task imports. Payloads are read as streams and written in chunks,
+ * so an upload is never fully materialized in memory.
+ */
+public interface TaskImportService {
+
+    TaskImportResultDto importJsonArray(InputStream inputStream) throws IOException;
+
+    TaskImportResultDto importNdjson(InputStream inputStream) throws IOException;
+
+    // Expects a header row naming the columns: title, description, status, dueDate, projectId, developerId
+    TaskImportResultDto importCsv(InputStream inputStream) throws IOException;
+}
@@ -1,12 +1,16 @@
 package com.example.clb.projecttracker.service;
 
+import com.example.clb.projecttracker.dto.CursorPageDto;
+import com.example.clb.projecttracker.dto.OverdueTaskNotificationDto;
 import com.example.clb.projecttracker.dto.TaskDto;
+import com.example.clb.projecttracker.dto.TaskExportFilterDto;
 import com.example.clb.projecttracker.dto.TaskRequestDto;
 import com.example.clb.projecttracker.dto.TaskStatusCountDto;
-import com.example.clb.projecttracker.model.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -19,13 +23,26 @@ public interface TaskService {
 
     TaskDto getTaskById(Long taskId);
 
-    Page<TaskDto> getAllTasks(Pageable pageable);
+    // includeDescription = false reads a lighter projection without the description column
+    Page<TaskDto> getAllTasks(Pageable pageable, boolean includeDescription);
 
-    Page<TaskDto> getTasksByProjectId(Long projectId, Pageable pageable);
+    Page<TaskDto> getTasksByProjectId(Long projectId, Pageable pageable, boolean includeDescription);
 
-    Page<TaskDto> getTasksByDeveloperId(Long developerId, Pageable pageable);
+    Page<TaskDto> getTasksByDeveloperId(Long developerId, Pageable pageable, boolean includeDescription);
 
-    Page<TaskDto> getOverdueTasks(Pageable pageable);
+    Page<TaskDto> getOverdueTasks(Pageable pageable, boolean includeDescription);
+
+    // Keyset pagination ordered by (dueDate, id); cursor is null for the first window
+    CursorPageDto<TaskDto> scrollAllTasks(String cursor, int size);
+
+    CursorPageDto<TaskDto> scrollTasksByProjectId(Long projectId, String cursor, int size);
+
+    CursorPageDto<TaskDto> scrollTasksByDeveloperId(Long developerId, String cursor, int size);
+
+    // Streams every matching task to the output with constant memory; the caller owns the stream
+    void exportTasksAsNdjson(TaskExportFilterDto filter, OutputStream outputStream) throws IOException;
+
+    void exportTasksAsCsv(TaskExportFilterDto filter, OutputStream outputStream) throws IOException;
 
     List<TaskStatusCountDto> getTaskCountsByStatusForProject(Long projectId);
 
@@ -45,7 +62,14 @@ public interface TaskService {
 
     List<TaskDto> findOverdueTasks();
 
-    List<Task> findOverdueTasksForNotification();
+    // Next chunk of overdue open tasks in (dueDate, id) order, starting after the given row (null for the first chunk).
+    // Only tasks whose developer id (0 when unassigned) modulo shardCount equals shard; shard 0 of 1 is everything
+    List<OverdueTaskNotificationDto> findOverdueNotificationChunk(LocalDate today, int shard, int shardCount,
+                                                                  OverdueTaskNotificationDto after, int size);
+
+    // Same for assigned tasks only, in (developerId, dueDate, id) order so each developer's tasks arrive together
+    List<OverdueTaskNotificationDto> findOverdueNotificationChunkByDeveloper(LocalDate today, int shard, int shardCount,
+                                                                             OverdueTaskNotificationDto after, int size);
 
 
 }
@@ -1,35 +1,67 @@
 package com.example.clb.projecttracker.service.impl;
 
+import com.example.clb.projecttracker.audit.AuditArchive;
+import com.example.clb.projecttracker.audit.AuditOutbox;
+import com.example.clb.projecttracker.document.AuditActivityRollup;
 import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.document.FieldChange;
 import com.example.clb.projecttracker.document.enums.ActionType;
+import com.example.clb.projecttracker.document.enums.RollupGranularity;
+import com.example.clb.projecttracker.dto.AuditActivityDto;
+import com.example.clb.projecttracker.dto.CursorPageDto;
+import com.example.clb.projecttracker.dto.FieldChangeFilterDto;
+import com.example.clb.projecttracker.exception.BadRequestException;
 import com.example.clb.projecttracker.repository.AuditLogRepository;
 import com.example.clb.projecttracker.service.AuditLogService;
+import com.example.clb.projecttracker.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class AuditLogServiceImpl implements AuditLogService {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int MAX_RANGE_SIZE = 1000;
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditOutbox auditOutbox;
+    private final AuditArchive auditArchive;
+    private final MongoTemplate mongoTemplate;
 
     @Override
-    @Async // Make logging asynchronous to avoid impacting main transaction performance
+    // Never blocks on Mongo; inside a transaction the event is only released once it commits
     public void logAction(String entityType, Long entityId, ActionType actionType, String userId, String details) {
+        logAction(entityType, entityId, null, actionType, userId, details, null);
+    }
+
+    @Override
+    public void logAction(String entityType, Long entityId, Long projectId, ActionType actionType, String userId, String details,
+                          List<FieldChange> changes) {
         AuditLog auditLog = AuditLog.builder()
                 .timestamp(LocalDateTime.now())
                 .entityType(entityType)
                 .entityId(entityId)
+                .projectId(projectId)
                 .actionType(actionType)
                 .userId(userId) // In a real app, get this from SecurityContextHolder
                 .details(details)
+                .changes(changes == null || changes.isEmpty() ? null : changes) // Left out so the changes index stays sparse
                 .build();
-        auditLogRepository.save(auditLog);
+        auditOutbox.add(auditLog);
     }
 
     @Override
@@ -51,4 +83,135 @@ public class AuditLogServiceImpl implements AuditLogService {
     public Page<AuditLog> getAuditLogsByUserId(String userId, Pageable pageable) {
         return auditLogRepository.findByUserId(userId, pageable);
     }
+
+    @Override
+    public CursorPageDto<AuditLog> scrollAuditLogs(String entityType, Long entityId, String userId, String cursor, int size) {
+        Query query = new Query();
+        if (entityType != null) {
+            query.addCriteria(Criteria.where("entityType").is(entityType));
+        }
+        if (entityId != null) {
+            query.addCriteria(Criteria.where("entityId").is(entityId));
+        }
+        if (userId != null) {
+            query.addCriteria(Criteria.where("userId").is(userId));
+        }
+        return scroll(query, cursor, size);
+    }
+
+    @Override
+    public CursorPageDto<AuditLog> scrollFieldChanges(FieldChangeFilterDto filter, String cursor, int size) {
+        if (filter.getField() == null || filter.getField().isBlank()) {
+            throw new BadRequestException("'field' is required");
+        }
+        Query query = new Query();
+        if (filter.getProjectId() != null) {
+            query.addCriteria(Criteria.where("projectId").is(filter.getProjectId()));
+        }
+        if (filter.getEntityType() != null) {
+            query.addCriteria(Criteria.where("entityType").is(filter.getEntityType()));
+        }
+        if (filter.getEntityId() != null) {
+            query.addCriteria(Criteria.where("entityId").is(filter.getEntityId()));
+        }
+        // The plain equality selects the index; $elemMatch then pins field and value to the same change
+        query.addCriteria(Criteria.where("changes.field").is(filter.getField()));
+        if (filter.getTo() != null) {
+            query.addCriteria(Criteria.where("changes").elemMatch(
+                    Criteria.where("field").is(filter.getField()).and("to").is(filter.getTo())));
+        }
+        return scroll(query, cursor, size);
+    }
+
+    private CursorPageDto<AuditLog> scroll(Query query, String cursor, int size) {
+        int windowSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        if (cursor != null && !cursor.isBlank()) {
+            AuditCursor position = AuditCursor.decode(cursor);
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("timestamp").lt(position.timestamp()),
+                    Criteria.where("timestamp").is(position.timestamp()).and("_id").lt(position.id())));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "timestamp", "_id")).limit(windowSize + 1);
+
+        List<AuditLog> rows = mongoTemplate.find(query, AuditLog.class);
+        boolean hasNext = rows.size() > windowSize;
+        List<AuditLog> window = hasNext ? rows.subList(0, windowSize) : rows;
+        String nextCursor = hasNext ? AuditCursor.of(window.get(window.size() - 1)).encode() : null;
+        return new CursorPageDto<>(List.copyOf(window), window.size(), hasNext, nextCursor);
+    }
+
+    @Override
+    public List<AuditLog> getAuditLogsInRange(LocalDateTime from, LocalDateTime to, String entityType, Long entityId, int limit) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+        int maxResults = Math.max(1, Math.min(limit, MAX_RANGE_SIZE));
+        Query query = new Query(Criteria.where("timestamp").gte(from).lt(to));
+        if (entityType != null) {
+            query.addCriteria(Criteria.where("entityType").is(entityType));
+        }
+        if (entityId != null) {
+            query.addCriteria(Criteria.where("entityId").is(entityId));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "timestamp", "_id")).limit(maxResults);
+        List<AuditLog> live = mongoTemplate.find(query, AuditLog.class);
+        if (!auditArchive.isEnabled() || !from.isBefore(auditArchive.horizon())) {
+            return live;
+        }
+        // Until the archiver catches up, recent archive segments and Mongo can hold the same event
+        Map<String, AuditLog> merged = new HashMap<>();
+        live.forEach(auditLog -> merged.put(auditLog.getId(), auditLog));
+        auditArchive.find(from, to, entityType, entityId, maxResults)
+                .forEach(auditLog -> merged.putIfAbsent(auditLog.getId(), auditLog));
+        return merged.values().stream()
+                .sorted(AuditArchive.NEWEST_FIRST)
+                .limit(maxResults)
+                .toList();
+    }
+
+    @Override
+    public List<AuditActivityDto> getActivity(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                              String entityType, ActionType actionType, String userId) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+        Criteria criteria = Criteria.where("granularity").is(granularity)
+                .and("bucketStart").gte(from).lt(to);
+        if (entityType != null) {
+            criteria.and("entityType").is(entityType);
+        }
+        if (actionType != null) {
+            criteria.and("actionType").is(actionType);
+        }
+        if (userId != null) {
+            criteria.and("userId").is(userId);
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.group("bucketStart", "entityType", "actionType").sum("count").as("count"),
+                Aggregation.project("bucketStart", "entityType", "actionType", "count"),
+                Aggregation.sort(Sort.by("bucketStart", "entityType", "actionType")));
+        return mongoTemplate.aggregate(aggregation, AuditActivityRollup.class, AuditActivityDto.class).getMappedResults();
+    }
+
+    // Position of the last returned entry; timestamps are stored with millisecond precision, so they round-trip exactly
+    private record AuditCursor(LocalDateTime timestamp, ObjectId id) {
+
+        static AuditCursor of(AuditLog auditLog) {
+            return new AuditCursor(auditLog.getTimestamp(), new ObjectId(auditLog.getId()));
+        }
+
+        static AuditCursor decode(String cursor) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            try {
+                return new AuditCursor(LocalDateTime.parse(parts[0]), new ObjectId(parts[1]));
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor: " + cursor, e);
+            }
+        }
+
+        String encode() {
+            return CursorCodec.encode(timestamp.toString(), id.toHexString());
+        }
+    }
 }
@@ -1,5 +1,9 @@
 package com.example.clb.projecttracker.service.impl;
 
+import com.example.clb.projecttracker.audit.FieldDiff;
+import com.example.clb.projecttracker.cache.CacheTags;
+import com.example.clb.projecttracker.cache.TaggedCacheInvalidator;
+import com.example.clb.projecttracker.document.FieldChange;
 import com.example.clb.projecttracker.document.enums.ActionType;
 import com.example.clb.projecttracker.dto.DeveloperDto;
 import com.example.clb.projecttracker.dto.DeveloperRequestDto;
@@ -29,6 +33,7 @@ public class DeveloperServiceImpl implements DeveloperService {
 
     private final DeveloperRepository developerRepository;
     private final AuditLogService auditLogService;
+    private final TaggedCacheInvalidator taggedCacheInvalidator;
 
     @Override
     @Transactional
@@ -56,7 +61,7 @@ public class DeveloperServiceImpl implements DeveloperService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "developersPage") // Key will be generated based on Pageable
+    @Cacheable(value = "developersPage", keyGenerator = "pageKeyGenerator", condition = "@pageKeyGenerator.isCacheable(#pageable)")
     public Page<DeveloperDto> getAllDevelopers(Pageable pageable) {
         Page<Developer> developers = developerRepository.findAll(pageable);
         return developers.map(this::mapToDto);
@@ -92,13 +97,21 @@ public class DeveloperServiceImpl implements DeveloperService {
             }
         });
 
+        List<FieldChange> changes = FieldDiff.create()
+                .compare("name", developer.getName(), developerRequestDto.getName())
+                .compare("email", developer.getEmail(), developerRequestDto.getEmail())
+                .compare("skills", developer.getSkills(), developerRequestDto.getSkills())
+                .changes();
         developer.setName(developerRequestDto.getName());
         developer.setEmail(developerRequestDto.getEmail());
         developer.setSkills(developerRequestDto.getSkills());
 
         Developer updatedDeveloper = developerRepository.save(developer);
+        // Cached task listings embed the developer name
+        taggedCacheInvalidator.invalidate(List.of(CacheTags.developer(developerId)));
         // Log action
-        auditLogService.logAction("Developer", updatedDeveloper.getId(), ActionType.UPDATED, "SYSTEM", "Developer updated: " + updatedDeveloper.getName());
+        auditLogService.logAction("Developer", updatedDeveloper.getId(), null, ActionType.UPDATED, "SYSTEM",
+                "Developer updated: " + updatedDeveloper.getName(), changes);
         return mapToDto(updatedDeveloper);
     }
 
@@ -120,6 +133,7 @@ public class DeveloperServiceImpl implements DeveloperService {
         // Log action before deletion
         auditLogService.logAction("Developer", developerId, ActionType.DELETED, "SYSTEM", "Developer deleted: " + developer.getName());
         developerRepository.deleteById(developerId);
+        taggedCacheInvalidator.invalidate(List.of(CacheTags.developer(developerId)));
     }
 
     // --- Helper Mapper Methods ---
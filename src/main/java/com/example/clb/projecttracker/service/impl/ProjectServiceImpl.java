@@ -1,5 +1,8 @@
 package com.example.clb.projecttracker.service.impl;
 
+import com.example.clb.projecttracker.audit.FieldDiff;
+import com.example.clb.projecttracker.cache.CacheTags;
+import com.example.clb.projecttracker.cache.TaggedCacheInvalidator;
 import com.example.clb.projecttracker.document.enums.ActionType;
 import com.example.clb.projecttracker.dto.ProjectDto;
 import com.example.clb.projecttracker.dto.ProjectRequestDto;
@@ -19,12 +22,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class ProjectServiceImpl implements ProjectService {
 
     private final ProjectRepository projectRepository;
     private final AuditLogService auditLogService;
+    private final TaggedCacheInvalidator taggedCacheInvalidator;
 
     @Override
     @Transactional
@@ -37,7 +43,8 @@ public class ProjectServiceImpl implements ProjectService {
         Project project = mapToEntity(projectRequestDto);
         Project savedProject = projectRepository.save(project);
         // Log action
-        auditLogService.logAction("Project", savedProject.getId(), ActionType.CREATED, "SYSTEM", "Project created: " + savedProject.getName());
+        auditLogService.logAction("Project", savedProject.getId(), savedProject.getId(), ActionType.CREATED, "SYSTEM",
+                "Project created: " + savedProject.getName(), null);
         return mapToDto(savedProject);
     }
 
@@ -52,7 +59,7 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "projectsPage") // Key will be generated based on Pageable
+    @Cacheable(value = "projectsPage", keyGenerator = "pageKeyGenerator", condition = "@pageKeyGenerator.isCacheable(#pageable)")
     public Page<ProjectDto> getAllProjects(Pageable pageable) {
         Page<Project> projects = projectRepository.findAll(pageable);
         return projects.map(this::mapToDto);
@@ -60,7 +67,7 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable("projectsWithNoTasksPage")
+    @Cacheable(value = "projectsWithNoTasksPage", keyGenerator = "pageKeyGenerator", condition = "@pageKeyGenerator.isCacheable(#pageable)")
     public Page<ProjectDto> getProjectsWithNoTasks(Pageable pageable) {
         return projectRepository.findProjectsWithNoTasks(pageable).map(this::mapToDto);
     }
@@ -77,6 +84,12 @@ public class ProjectServiceImpl implements ProjectService {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
 
+        FieldDiff diff = FieldDiff.create()
+                .compare("name", project.getName(), valueOrCurrent(projectRequestDto.getName(), project.getName()))
+                .compare("description", project.getDescription(), valueOrCurrent(projectRequestDto.getDescription(), project.getDescription()))
+                .compare("deadline", project.getDeadline(), valueOrCurrent(projectRequestDto.getDeadline(), project.getDeadline()))
+                .compare("status", project.getStatus(), valueOrCurrent(projectRequestDto.getStatus(), project.getStatus()));
+
         // Check for name conflict if name is being changed
         if (projectRequestDto.getName() != null && !projectRequestDto.getName().equals(project.getName())) {
             projectRepository.findByName(projectRequestDto.getName()).ifPresent(p -> {
@@ -98,8 +111,11 @@ public class ProjectServiceImpl implements ProjectService {
         }
 
         Project updatedProject = projectRepository.save(project);
+        // Cached task listings embed the project name
+        taggedCacheInvalidator.invalidate(List.of(CacheTags.project(projectId)));
         // Log action
-        auditLogService.logAction("Project", updatedProject.getId(), ActionType.UPDATED, "SYSTEM", "Project updated: " + updatedProject.getName());
+        auditLogService.logAction("Project", updatedProject.getId(), updatedProject.getId(), ActionType.UPDATED, "SYSTEM",
+                "Project updated: " + updatedProject.getName(), diff.changes());
         return mapToDto(updatedProject);
     }
 
@@ -115,11 +131,18 @@ public class ProjectServiceImpl implements ProjectService {
             throw new ResourceNotFoundException("Project", "id", projectId);
         }
         // Log action before deletion
-        auditLogService.logAction("Project", projectId, ActionType.DELETED, "SYSTEM", "Project deleted with ID: " + projectId);
+        auditLogService.logAction("Project", projectId, projectId, ActionType.DELETED, "SYSTEM", "Project deleted with ID: " + projectId, null);
         projectRepository.deleteById(projectId);
+        // Deleting a project cascades to its tasks
+        taggedCacheInvalidator.invalidate(List.of(CacheTags.project(projectId), CacheTags.ALL_TASKS, CacheTags.OVERDUE_TASKS));
     }
 
     // --- Helper Mapper Methods ---
+    // Null fields in an update request leave the project's value untouched
+    private static <T> T valueOrCurrent(T requested, T current) {
+        return requested != null ? requested : current;
+    }
+
     private ProjectDto mapToDto(Project project) {
         ProjectDto dto = new ProjectDto();
         dto.setId(project.getId());
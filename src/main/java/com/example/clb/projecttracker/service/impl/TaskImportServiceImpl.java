@@ -0,0 +1,333 @@
+package com.example.clb.projecttracker.service.impl;
+
+import com.example.clb.projecttracker.cache.CacheTags;
+import com.example.clb.projecttracker.cache.TaggedCacheInvalidator;
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.document.enums.ActionType;
+import com.example.clb.projecttracker.dto.TaskImportResultDto;
+import com.example.clb.projecttracker.dto.TaskRequestDto;
+import com.example.clb.projecttracker.model.Developer;
+import com.example.clb.projecttracker.model.Project;
+import com.example.clb.projecttracker.model.Task;
+import com.example.clb.projecttracker.model.enums.TaskStatus;
+import com.example.clb.projecttracker.repository.DeveloperRepository;
+import com.example.clb.projecttracker.repository.ProjectRepository;
+import com.example.clb.projecttracker.repository.TaskRepository;
+import com.example.clb.projecttracker.service.AuditLogService;
+import com.example.clb.projecttracker.service.TaskImportService;
+import com.example.clb.projecttracker.util.CsvUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskImportServiceImpl implements TaskImportService {
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final DeveloperRepository developerRepository;
+    private final AuditLogService auditLogService;
+    private final TaggedCacheInvalidator taggedCacheInvalidator;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final AppProperties appProperties;
+
+    @Override
+    public TaskImportResultDto importJsonArray(InputStream inputStream) throws IOException {
+        ImportSession session = new ImportSession();
+        int row = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                session.reject(1, "Expected a JSON array of tasks");
+                return session.finish();
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                row++;
+                // Read each element as a tree first, so a bad value only rejects its own row
+                JsonNode node = objectMapper.readTree(parser);
+                try {
+                    session.accept(row, objectMapper.treeToValue(node, TaskRequestDto.class));
+                } catch (JsonProcessingException e) {
+                    session.reject(row, "Invalid task: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // The payload itself is malformed; keep what was already imported and stop here
+            session.reject(row + 1, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+        }
+        return session.finish();
+    }
+
+    @Override
+    public TaskImportResultDto importNdjson(InputStream inputStream) throws IOException {
+        ImportSession session = new ImportSession();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            int row = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                try {
+                    session.accept(row, objectMapper.readValue(line, TaskRequestDto.class));
+                } catch (JsonProcessingException e) {
+                    session.reject(row, "Invalid task: " + e.getOriginalMessage());
+                }
+            }
+        }
+        return session.finish();
+    }
+
+    @Override
+    public TaskImportResultDto importCsv(InputStream inputStream) throws IOException {
+        ImportSession session = new ImportSession();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                return session.finish();
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = CsvUtils.parseLine(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("title", "status", "projectid")) {
+                if (!columns.containsKey(required)) {
+                    session.reject(1, "Missing required CSV column: " + required);
+                    return session.finish();
+                }
+            }
+
+            String line;
+            int row = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                try {
+                    session.accept(row, fromCsv(CsvUtils.parseLine(line), columns));
+                } catch (DateTimeParseException e) {
+                    session.reject(row, "Invalid dueDate: " + e.getParsedString());
+                } catch (IllegalArgumentException e) { // Unknown status, non-numeric id or broken quoting
+                    session.reject(row, "Invalid CSV record: " + e.getMessage());
+                }
+            }
+        }
+        return session.finish();
+    }
+
+    private TaskRequestDto fromCsv(List<String> fields, Map<String, Integer> columns) {
+        Function<String, String> column = name -> {
+            Integer index = columns.get(name);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        };
+        TaskRequestDto dto = new TaskRequestDto();
+        dto.setTitle(column.apply("title"));
+        dto.setDescription(column.apply("description"));
+        String status = column.apply("status");
+        dto.setStatus(status != null ? TaskStatus.valueOf(status.toUpperCase(Locale.ROOT)) : null);
+        String dueDate = column.apply("duedate");
+        dto.setDueDate(dueDate != null ? LocalDate.parse(dueDate) : null);
+        String projectId = column.apply("projectid");
+        dto.setProjectId(projectId != null ? Long.valueOf(projectId) : null);
+        String developerId = column.apply("developerid");
+        dto.setDeveloperId(developerId != null ? Long.valueOf(developerId) : null);
+        return dto;
+    }
+
+    /**
+     * Writes one chunk in its own transaction: project and developer references are resolved with
+     * two set-based lookups, the tasks go out as batched inserts, and the whole chunk produces a
+     * single audit record. Caches are evicted by the caller once the chunk has committed.
+     */
+    private ChunkOutcome writeChunk(List<ImportRow> rows) {
+        Set<Long> projectIds = rows.stream().map(r -> r.dto().getProjectId()).collect(Collectors.toSet());
+        Set<Long> developerIds = rows.stream().map(r -> r.dto().getDeveloperId()).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Project> projects = projectRepository.findAllById(projectIds).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        Map<Long, Developer> developers = developerIds.isEmpty() ? Map.of() : developerRepository.findAllById(developerIds).stream()
+                .collect(Collectors.toMap(Developer::getId, Function.identity()));
+
+        List<Task> tasks = new ArrayList<>(rows.size());
+        List<TaskImportResultDto.RowError> rejected = new ArrayList<>();
+        for (ImportRow row : rows) {
+            TaskRequestDto dto = row.dto();
+            Project project = projects.get(dto.getProjectId());
+            if (project == null) {
+                rejected.add(new TaskImportResultDto.RowError(row.row(), "Project not found with id : '" + dto.getProjectId() + "'"));
+                continue;
+            }
+            Developer developer = null;
+            if (dto.getDeveloperId() != null) {
+                developer = developers.get(dto.getDeveloperId());
+                if (developer == null) {
+                    rejected.add(new TaskImportResultDto.RowError(row.row(), "Developer not found with id : '" + dto.getDeveloperId() + "'"));
+                    continue;
+                }
+            }
+            Task task = new Task();
+            task.setTitle(dto.getTitle());
+            task.setDescription(dto.getDescription());
+            task.setStatus(dto.getStatus());
+            task.setDueDate(dto.getDueDate());
+            task.setProject(project);
+            task.setDeveloper(developer);
+            tasks.add(task);
+        }
+        if (tasks.isEmpty()) {
+            return new ChunkOutcome(List.of(), rejected);
+        }
+
+        taskRepository.saveAll(tasks);
+        entityManager.flush();
+        entityManager.clear();
+
+        long firstId = tasks.stream().mapToLong(Task::getId).min().orElse(0);
+        long lastId = tasks.stream().mapToLong(Task::getId).max().orElse(0);
+        auditLogService.logAction("Task", null, ActionType.IMPORTED, "SYSTEM",
+                String.format("Bulk import: %d tasks created across %d project(s), ids %d..%d",
+                        tasks.size(), projects.size(), firstId, lastId));
+        return new ChunkOutcome(tasks, rejected);
+    }
+
+    private void evictCaches(List<Task> tasks) {
+        Set<String> tags = new HashSet<>();
+        tags.add(CacheTags.ALL_TASKS);
+        Set<Long> projectIds = new HashSet<>();
+        for (Task task : tasks) {
+            projectIds.add(task.getProject().getId());
+            tags.add(CacheTags.project(task.getProject().getId()));
+            if (task.getDeveloper() != null) {
+                tags.add(CacheTags.developer(task.getDeveloper().getId()));
+            }
+            if (task.getDueDate() != null && task.getDueDate().isBefore(LocalDate.now())
+                    && task.getStatus() != TaskStatus.COMPLETED && task.getStatus() != TaskStatus.CANCELLED) {
+                tags.add(CacheTags.OVERDUE_TASKS);
+            }
+        }
+        taggedCacheInvalidator.invalidate(tags);
+
+        Cache countsByProject = cacheManager.getCache("taskStatusCountsByProject");
+        if (countsByProject != null) {
+            projectIds.forEach(countsByProject::evict);
+        }
+        Cache countsOverall = cacheManager.getCache("taskStatusCountsOverall");
+        if (countsOverall != null) {
+            countsOverall.clear();
+        }
+    }
+
+    private record ImportRow(int row, TaskRequestDto dto) {
+    }
+
+    private record ChunkOutcome(List<Task> written, List<TaskImportResultDto.RowError> rejected) {
+    }
+
+    // Accumulates validated rows into chunks and tallies the result of one upload
+    private class ImportSession {
+
+        private final TaskImportResultDto result = new TaskImportResultDto();
+        private final List<ImportRow> chunk = new ArrayList<>();
+
+        void accept(int row, TaskRequestDto dto) {
+            Set<ConstraintViolation<TaskRequestDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            result.setReceived(result.getReceived() + 1);
+            chunk.add(new ImportRow(row, dto));
+            if (chunk.size() >= appProperties.getTaskImport().getChunkSize()) {
+                flush();
+            }
+        }
+
+        void reject(int row, String message) {
+            result.setReceived(result.getReceived() + 1);
+            fail(row, message);
+        }
+
+        TaskImportResultDto finish() {
+            flush();
+            log.info("Task import finished. Received: {}, Imported: {}, Failed: {}",
+                    result.getReceived(), result.getImported(), result.getFailed());
+            return result;
+        }
+
+        private void fail(int row, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < appProperties.getTaskImport().getMaxReportedErrors()) {
+                result.getErrors().add(new TaskImportResultDto.RowError(row, message));
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<ImportRow> rows = new ArrayList<>(chunk);
+            chunk.clear();
+            try {
+                ChunkOutcome outcome = transactionTemplate.execute(status -> writeChunk(rows));
+                // After commit, so a read in between can't cache counts that miss this chunk
+                if (!outcome.written().isEmpty()) {
+                    evictCaches(outcome.written());
+                }
+                result.setImported(result.getImported() + outcome.written().size());
+                outcome.rejected().forEach(error -> fail(error.getRow(), error.getMessage()));
+            } catch (DataAccessException | PersistenceException e) {
+                // entityManager.flush() raises untranslated JPA exceptions; the commit raises Spring's
+                String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                log.error("Task import chunk of {} rows rolled back: {}", rows.size(), cause);
+                rows.forEach(row -> fail(row.row(), "Chunk rejected by the database: " + cause));
+            }
+        }
+    }
+}
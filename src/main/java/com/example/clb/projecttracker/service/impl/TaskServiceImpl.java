@@ -1,9 +1,17 @@
 package com.example.clb.projecttracker.service.impl;
 
+import com.example.clb.projecttracker.audit.FieldDiff;
+import com.example.clb.projecttracker.cache.CacheTags;
+import com.example.clb.projecttracker.cache.TaggedCacheInvalidator;
+import com.example.clb.projecttracker.document.FieldChange;
 import com.example.clb.projecttracker.document.enums.ActionType;
+import com.example.clb.projecttracker.dto.CursorPageDto;
+import com.example.clb.projecttracker.dto.OverdueTaskNotificationDto;
 import com.example.clb.projecttracker.dto.TaskDto;
+import com.example.clb.projecttracker.dto.TaskExportFilterDto;
 import com.example.clb.projecttracker.dto.TaskRequestDto;
 import com.example.clb.projecttracker.dto.TaskStatusCountDto;
+import com.example.clb.projecttracker.exception.BadRequestException;
 import com.example.clb.projecttracker.exception.ResourceNotFoundException;
 import com.example.clb.projecttracker.model.Developer;
 import com.example.clb.projecttracker.model.Project;
@@ -14,36 +22,58 @@ import com.example.clb.projecttracker.repository.ProjectRepository;
 import com.example.clb.projecttracker.repository.TaskRepository;
 import com.example.clb.projecttracker.service.AuditLogService;
 import com.example.clb.projecttracker.service.TaskService;
+import com.example.clb.projecttracker.util.CsvUtils;
+import com.example.clb.projecttracker.util.CursorCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
     private final DeveloperRepository developerRepository;
     private final AuditLogService auditLogService;
+    private final TaggedCacheInvalidator taggedCacheInvalidator;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional
     @Caching(evict = {
-        @CacheEvict(value = "tasksPage", allEntries = true),
-        @CacheEvict(value = "tasksByProjectPages", allEntries = true),
-        @CacheEvict(value = "tasksByDeveloperPages", allEntries = true)
+        @CacheEvict(value = "taskStatusCountsByProject", key = "#taskRequestDto.projectId"),
+        @CacheEvict(value = "taskStatusCountsOverall", allEntries = true)
     })
     public TaskDto createTask(TaskRequestDto taskRequestDto) {
         Project project = projectRepository.findById(taskRequestDto.getProjectId())
@@ -57,9 +87,11 @@ public class TaskServiceImpl implements TaskService {
 
         Task task = mapToEntity(taskRequestDto, project, developer);
         Task savedTask = taskRepository.save(task);
+        evictTaskListings(null, ListingState.of(savedTask));
         String developerName = developer != null ? developer.getName() : "Unassigned";
-        auditLogService.logAction("Task", savedTask.getId(), ActionType.CREATED, "SYSTEM",
-                String.format("Task created: '%s' for Project '%s', Assigned to: '%s'", savedTask.getTitle(), project.getName(), developerName));
+        auditLogService.logAction("Task", savedTask.getId(), project.getId(), ActionType.CREATED, "SYSTEM",
+                String.format("Task created: '%s' for Project '%s', Assigned to: '%s'", savedTask.getTitle(), project.getName(), developerName),
+                null);
         return mapToDto(savedTask);
     }
 
@@ -74,28 +106,37 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable("tasksPage")
-    public Page<TaskDto> getAllTasks(Pageable pageable) {
+    @Cacheable(value = "tasksPage", keyGenerator = "pageKeyGenerator", condition = "@pageKeyGenerator.isCacheable(#pageable)")
+    public Page<TaskDto> getAllTasks(Pageable pageable, boolean includeDescription) {
+        if (!includeDescription) {
+            return taskRepository.findAllSummaries(pageable);
+        }
         return taskRepository.findAll(pageable).map(this::mapToDto);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "tasksByProjectPages", key = "#projectId")
-    public Page<TaskDto> getTasksByProjectId(Long projectId, Pageable pageable) {
+    @Cacheable(value = "tasksByProjectPages", keyGenerator = "pageKeyGenerator", condition = "@pageKeyGenerator.isCacheable(#pageable)")
+    public Page<TaskDto> getTasksByProjectId(Long projectId, Pageable pageable, boolean includeDescription) {
         if (!projectRepository.existsById(projectId)) {
             throw new ResourceNotFoundException("Project", "id", projectId);
         }
+        if (!includeDescription) {
+            return taskRepository.findSummariesByProjectId(projectId, pageable);
+        }
         return taskRepository.findByProjectId(projectId, pageable).map(this::mapToDto);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "tasksByDeveloperPages", key = "#developerId")
-    public Page<TaskDto> getTasksByDeveloperId(Long developerId, Pageable pageable) {
+    @Cacheable(value = "tasksByDeveloperPages", keyGenerator = "pageKeyGenerator", condition = "@pageKeyGenerator.isCacheable(#pageable)")
+    public Page<TaskDto> getTasksByDeveloperId(Long developerId, Pageable pageable, boolean includeDescription) {
         if (!developerRepository.existsById(developerId)) {
             throw new ResourceNotFoundException("Developer", "id", developerId);
         }
+        if (!includeDescription) {
+            return taskRepository.findSummariesByDeveloperId(developerId, pageable);
+        }
         return taskRepository.findByDeveloperId(developerId, pageable).map(this::mapToDto);
     }
 
@@ -110,11 +151,100 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable("overdueTasksPage")
-    public Page<TaskDto> getOverdueTasks(Pageable pageable) {
+    @Cacheable(value = "overdueTasksPage", keyGenerator = "pageKeyGenerator", condition = "@pageKeyGenerator.isCacheable(#pageable)")
+    public Page<TaskDto> getOverdueTasks(Pageable pageable, boolean includeDescription) {
+        if (!includeDescription) {
+            return taskRepository.findOverdueSummaries(pageable);
+        }
         return taskRepository.findOverdueTasks(pageable).map(this::mapToDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<TaskDto> scrollAllTasks(String cursor, int size) {
+        return scroll(cursor, size,
+                taskRepository::findDatedWindow,
+                (position, limit) -> taskRepository.findDatedWindowAfter(position.dueDate(), position.id(), limit),
+                taskRepository::findUndatedWindowAfter);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<TaskDto> scrollTasksByProjectId(Long projectId, String cursor, int size) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Project", "id", projectId);
+        }
+        return scroll(cursor, size,
+                limit -> taskRepository.findDatedWindowByProjectId(projectId, limit),
+                (position, limit) -> taskRepository.findDatedWindowByProjectIdAfter(projectId, position.dueDate(), position.id(), limit),
+                (afterId, limit) -> taskRepository.findUndatedWindowByProjectIdAfter(projectId, afterId, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<TaskDto> scrollTasksByDeveloperId(Long developerId, String cursor, int size) {
+        if (!developerRepository.existsById(developerId)) {
+            throw new ResourceNotFoundException("Developer", "id", developerId);
+        }
+        return scroll(cursor, size,
+                limit -> taskRepository.findDatedWindowByDeveloperId(developerId, limit),
+                (position, limit) -> taskRepository.findDatedWindowByDeveloperIdAfter(developerId, position.dueDate(), position.id(), limit),
+                (afterId, limit) -> taskRepository.findUndatedWindowByDeveloperIdAfter(developerId, afterId, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasksAsNdjson(TaskExportFilterDto filter, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        exportTasks(filter, task -> {
+            writer.write(objectMapper.writeValueAsString(mapToDto(task)));
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasksAsCsv(TaskExportFilterDto filter, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write("id,title,description,status,dueDate,projectId,projectName,developerId,developerName,createdAt,updatedAt\n");
+        exportTasks(filter, task -> {
+            Developer developer = task.getDeveloper();
+            writer.write(String.join(",",
+                    CsvUtils.escape(task.getId()),
+                    CsvUtils.escape(task.getTitle()),
+                    CsvUtils.escape(task.getDescription()),
+                    CsvUtils.escape(task.getStatus()),
+                    CsvUtils.escape(task.getDueDate()),
+                    CsvUtils.escape(task.getProject().getId()),
+                    CsvUtils.escape(task.getProject().getName()),
+                    CsvUtils.escape(developer != null ? developer.getId() : null),
+                    CsvUtils.escape(developer != null ? developer.getName() : null),
+                    CsvUtils.escape(task.getCreatedAt()),
+                    CsvUtils.escape(task.getUpdatedAt())));
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    private void exportTasks(TaskExportFilterDto filter, TaskRowWriter rowWriter) throws IOException {
+        try (Stream<Task> tasks = taskRepository.streamForExport(filter.getProjectId(), filter.getDeveloperId(),
+                filter.getStatus(), filter.getDueFrom(), filter.getDueTo())) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                rowWriter.write(task);
+                // Written rows are dropped from the persistence context so memory stays flat
+                entityManager.detach(task);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface TaskRowWriter {
+        void write(Task task) throws IOException;
+    }
+
     @Override
     @Transactional(readOnly = true)
     @Cacheable(value = "taskStatusCountsByProject", key = "#projectId")
@@ -137,10 +267,6 @@ public class TaskServiceImpl implements TaskService {
     @Caching(put = {
         @CachePut(value = "tasks", key = "#taskId")
     }, evict = {
-        @CacheEvict(value = "tasksPage", allEntries = true),
-        @CacheEvict(value = "tasksByProjectPages", allEntries = true),
-        @CacheEvict(value = "tasksByDeveloperPages", allEntries = true),
-        @CacheEvict(value = "overdueTasksPage", allEntries = true),
         @CacheEvict(value = "taskStatusCountsByProject", allEntries = true),
         @CacheEvict(value = "taskStatusCountsOverall", allEntries = true)
     })
@@ -157,6 +283,15 @@ public class TaskServiceImpl implements TaskService {
                     .orElseThrow(() -> new ResourceNotFoundException("Developer", "id", taskRequestDto.getDeveloperId()));
         }
 
+        ListingState before = ListingState.of(task);
+        List<FieldChange> changes = FieldDiff.create()
+                .compare("title", task.getTitle(), taskRequestDto.getTitle())
+                .compare("description", task.getDescription(), taskRequestDto.getDescription())
+                .compare("status", before.status(), taskRequestDto.getStatus())
+                .compare("dueDate", before.dueDate(), taskRequestDto.getDueDate())
+                .compare("projectId", before.projectId(), project.getId())
+                .compare("developerId", before.developerId(), developer != null ? developer.getId() : null)
+                .changes();
         task.setTitle(taskRequestDto.getTitle());
         task.setDescription(taskRequestDto.getDescription());
         task.setStatus(taskRequestDto.getStatus());
@@ -165,7 +300,9 @@ public class TaskServiceImpl implements TaskService {
         task.setDeveloper(developer);
 
         Task updatedTask = taskRepository.save(task);
-        auditLogService.logAction("Task", updatedTask.getId(), ActionType.UPDATED, "SYSTEM", "Task updated: " + updatedTask.getTitle());
+        evictTaskListings(before, ListingState.of(updatedTask));
+        auditLogService.logAction("Task", updatedTask.getId(), project.getId(), ActionType.UPDATED, "SYSTEM",
+                "Task updated: " + updatedTask.getTitle(), changes);
         return mapToDto(updatedTask);
     }
 
@@ -174,10 +311,6 @@ public class TaskServiceImpl implements TaskService {
     @Caching(put = {
         @CachePut(value = "tasks", key = "#taskId")
     }, evict = {
-        @CacheEvict(value = "tasksPage", allEntries = true),
-        @CacheEvict(value = "tasksByProjectPages", allEntries = true),
-        @CacheEvict(value = "tasksByDeveloperPages", allEntries = true),
-        @CacheEvict(value = "overdueTasksPage", allEntries = true),
         @CacheEvict(value = "taskStatusCountsByProject", key = "#result.project.id", condition="#result != null && #result.project != null"),
         @CacheEvict(value = "taskStatusCountsOverall", allEntries = true)
     })
@@ -187,10 +320,13 @@ public class TaskServiceImpl implements TaskService {
         Developer developer = developerRepository.findById(developerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Developer", "id", developerId));
 
+        ListingState before = ListingState.of(task);
         task.setDeveloper(developer);
         Task updatedTask = taskRepository.save(task);
-        auditLogService.logAction("Task", updatedTask.getId(), ActionType.ASSIGNED, "SYSTEM",
-                String.format("Task '%s' assigned to developer '%s'", updatedTask.getTitle(), developer.getName()));
+        evictTaskListings(before, ListingState.of(updatedTask));
+        auditLogService.logAction("Task", updatedTask.getId(), before.projectId(), ActionType.ASSIGNED, "SYSTEM",
+                String.format("Task '%s' assigned to developer '%s'", updatedTask.getTitle(), developer.getName()),
+                FieldDiff.create().compare("developerId", before.developerId(), developerId).changes());
         return mapToDto(updatedTask);
     }
 
@@ -199,10 +335,6 @@ public class TaskServiceImpl implements TaskService {
     @Caching(put = {
         @CachePut(value = "tasks", key = "#taskId")
     }, evict = {
-        @CacheEvict(value = "tasksPage", allEntries = true),
-        @CacheEvict(value = "tasksByProjectPages", allEntries = true),
-        @CacheEvict(value = "tasksByDeveloperPages", allEntries = true),
-        @CacheEvict(value = "overdueTasksPage", allEntries = true),
         @CacheEvict(value = "taskStatusCountsByProject", key = "#result.project.id", condition="#result != null && #result.project != null"),
         @CacheEvict(value = "taskStatusCountsOverall", allEntries = true)
     })
@@ -211,10 +343,13 @@ public class TaskServiceImpl implements TaskService {
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
 
         String oldDeveloperName = task.getDeveloper() != null ? task.getDeveloper().getName() : "N/A";
+        ListingState before = ListingState.of(task);
         task.setDeveloper(null);
         Task updatedTask = taskRepository.save(task);
-        auditLogService.logAction("Task", updatedTask.getId(), ActionType.UNASSIGNED, "SYSTEM",
-                String.format("Task '%s' unassigned from developer '%s'", updatedTask.getTitle(), oldDeveloperName));
+        evictTaskListings(before, ListingState.of(updatedTask));
+        auditLogService.logAction("Task", updatedTask.getId(), before.projectId(), ActionType.UNASSIGNED, "SYSTEM",
+                String.format("Task '%s' unassigned from developer '%s'", updatedTask.getTitle(), oldDeveloperName),
+                FieldDiff.create().compare("developerId", before.developerId(), null).changes());
         return mapToDto(updatedTask);
     }
 
@@ -222,17 +357,15 @@ public class TaskServiceImpl implements TaskService {
     @Transactional
     @Caching(evict = {
         @CacheEvict(value = "tasks", key = "#taskId"),
-        @CacheEvict(value = "tasksPage", allEntries = true),
-        @CacheEvict(value = "tasksByProjectPages", allEntries = true),
-        @CacheEvict(value = "tasksByDeveloperPages", allEntries = true),
-        @CacheEvict(value = "overdueTasksPage", allEntries = true),
         @CacheEvict(value = "taskStatusCountsByProject", allEntries = true),
         @CacheEvict(value = "taskStatusCountsOverall", allEntries = true)
     })
     public void deleteTask(Long taskId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
-        auditLogService.logAction("Task", taskId, ActionType.DELETED, "SYSTEM", "Task deleted: " + task.getTitle());
+        auditLogService.logAction("Task", taskId, task.getProject() != null ? task.getProject().getId() : null, ActionType.DELETED,
+                "SYSTEM", "Task deleted: " + task.getTitle(), null);
+        evictTaskListings(ListingState.of(task), null);
         taskRepository.deleteById(taskId);
     }
 
@@ -257,11 +390,124 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Task> findOverdueTasksForNotification() {
-        return taskRepository.findByDueDateBeforeAndStatusNotIn(
-                LocalDate.now(),
-                Arrays.asList(TaskStatus.COMPLETED, TaskStatus.CANCELLED)
-        );
+    public List<OverdueTaskNotificationDto> findOverdueNotificationChunk(LocalDate today, int shard, int shardCount,
+                                                                         OverdueTaskNotificationDto after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        if (after == null) {
+            return taskRepository.findOverdueNotifications(today, shard, shardCount, limit);
+        }
+        return taskRepository.findOverdueNotificationsAfter(today, shard, shardCount, after.getDueDate(), after.getTaskId(), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OverdueTaskNotificationDto> findOverdueNotificationChunkByDeveloper(LocalDate today, int shard, int shardCount,
+                                                                                    OverdueTaskNotificationDto after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        if (after == null) {
+            return taskRepository.findOverdueNotificationsByDeveloper(today, shard, shardCount, limit);
+        }
+        return taskRepository.findOverdueNotificationsByDeveloperAfter(today, shard, shardCount, after.getDeveloperId(),
+                after.getDueDate(), after.getTaskId(), limit);
+    }
+
+    // --- Keyset Pagination Helpers ---
+
+    /**
+     * Reads one window of size + 1 rows (the extra row only signals that more exist), first walking
+     * tasks with a due date in (dueDate, id) order and then tasks without one in id order.
+     */
+    private CursorPageDto<TaskDto> scroll(String cursor, int size,
+                                          Function<Pageable, List<Task>> datedFirst,
+                                          BiFunction<TaskCursor, Pageable, List<Task>> datedAfter,
+                                          BiFunction<Long, Pageable, List<Task>> undatedAfter) {
+        int windowSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        int fetchSize = windowSize + 1;
+        TaskCursor position = cursor == null || cursor.isBlank() ? null : TaskCursor.decode(cursor);
+
+        List<Task> rows = new ArrayList<>(fetchSize);
+        if (position == null) {
+            rows.addAll(datedFirst.apply(PageRequest.of(0, fetchSize)));
+        } else if (position.dueDate() != null) {
+            rows.addAll(datedAfter.apply(position, PageRequest.of(0, fetchSize)));
+        }
+        if (rows.size() < fetchSize) {
+            Long afterId = position != null && position.dueDate() == null ? position.id() : 0L;
+            rows.addAll(undatedAfter.apply(afterId, PageRequest.of(0, fetchSize - rows.size())));
+        }
+
+        boolean hasNext = rows.size() > windowSize;
+        List<Task> window = hasNext ? rows.subList(0, windowSize) : rows;
+        String nextCursor = hasNext ? TaskCursor.of(window.get(window.size() - 1)).encode() : null;
+        List<TaskDto> content = window.stream().map(this::mapToDto).collect(Collectors.toList());
+        return new CursorPageDto<>(content, content.size(), hasNext, nextCursor);
+    }
+
+    // Position after the last task of a window; a null dueDate means the undated tail has been reached
+    private record TaskCursor(LocalDate dueDate, Long id) {
+
+        private static final String UNDATED = "-";
+
+        static TaskCursor of(Task task) {
+            return new TaskCursor(task.getDueDate(), task.getId());
+        }
+
+        static TaskCursor decode(String cursor) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            try {
+                LocalDate dueDate = UNDATED.equals(parts[0]) ? null : LocalDate.parse(parts[0]);
+                return new TaskCursor(dueDate, Long.valueOf(parts[1]));
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor: " + cursor, e);
+            }
+        }
+
+        String encode() {
+            return CursorCodec.encode(dueDate != null ? dueDate.toString() : UNDATED, id.toString());
+        }
+    }
+
+    // --- Cache Invalidation Helpers ---
+
+    /**
+     * Evicts only the cached task listings a change can affect: the old and new project/developer
+     * scopes, global pages holding rows of those projects, developers or statuses, and the global
+     * and overdue scopes when the task enters, leaves or moves within them.
+     * A null {@code before} means the task was created, a null {@code after} that it was deleted.
+     */
+    private void evictTaskListings(ListingState before, ListingState after) {
+        Set<String> tags = new HashSet<>();
+        for (ListingState state : Arrays.asList(before, after)) {
+            if (state != null) {
+                tags.add(CacheTags.project(state.projectId()));
+                if (state.developerId() != null) {
+                    tags.add(CacheTags.developer(state.developerId()));
+                }
+            }
+        }
+        // tasksPage can be sorted by any task field, updatedAt included, so every write may reorder it
+        tags.add(CacheTags.ALL_TASKS);
+        if ((before != null && before.isOverdue()) || (after != null && after.isOverdue())) {
+            tags.add(CacheTags.OVERDUE_TASKS);
+        }
+        taggedCacheInvalidator.invalidate(tags);
+    }
+
+    // Snapshot of the task attributes that decide which cached listings contain it
+    private record ListingState(Long projectId, Long developerId, TaskStatus status, LocalDate dueDate) {
+
+        static ListingState of(Task task) {
+            return new ListingState(
+                    task.getProject() != null ? task.getProject().getId() : null,
+                    task.getDeveloper() != null ? task.getDeveloper().getId() : null,
+                    task.getStatus(),
+                    task.getDueDate());
+        }
+
+        boolean isOverdue() {
+            return dueDate != null && dueDate.isBefore(LocalDate.now())
+                    && status != TaskStatus.COMPLETED && status != TaskStatus.CANCELLED;
+        }
     }
 
     // --- Helper Mapper Methods ---
@@ -0,0 +1,66 @@
+-- Baseline: the schema as it stood when Hibernate's ddl-auto=update still managed it.
+-- Databases created that way are baselined at this version (spring.flyway.baseline-on-migrate)
+-- and start from V2.
+
+create sequence developers_seq start with 1 increment by 50;
+create sequence projects_seq start with 1 increment by 50;
+create sequence tasks_seq start with 1 increment by 50;
+
+create table developers (
+    id bigint not null,
+    email varchar(100) not null unique,
+    name varchar(100) not null,
+    skills varchar(255),
+    primary key (id)
+);
+
+create table projects (
+    id bigint not null,
+    name varchar(100) not null unique,
+    description text,
+    deadline date not null,
+    status varchar(255) not null check (status in ('NOT_STARTED','IN_PROGRESS','COMPLETED','ON_HOLD','CANCELLED')),
+    primary key (id)
+);
+
+create table tasks (
+    id bigint not null,
+    title varchar(150) not null,
+    description text,
+    status varchar(255) not null check (status in ('TO_DO','IN_PROGRESS','BLOCKED','IN_REVIEW','COMPLETED','CANCELLED')),
+    due_date date,
+    project_id bigint not null,
+    developer_id bigint,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    primary key (id)
+);
+
+create table roles (
+    id integer generated by default as identity,
+    name varchar(20) unique check (name in ('ROLE_ADMIN','ROLE_MANAGER','ROLE_DEVELOPER','ROLE_CONTRACTOR')),
+    primary key (id)
+);
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(50) not null,
+    email varchar(120) not null,
+    password varchar(120),
+    provider varchar(255) not null check (provider in ('LOCAL','GOOGLE','GITHUB')),
+    provider_id varchar(255),
+    primary key (id),
+    unique (username),
+    unique (email)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role_id integer not null,
+    primary key (role_id, user_id)
+);
+
+alter table if exists tasks add constraint FKah1a96ernaimwyfpa6yl8m843 foreign key (developer_id) references developers;
+alter table if exists tasks add constraint FKsfhn82y57i3k9uxww1s007acc foreign key (project_id) references projects;
+alter table if exists user_roles add constraint FKh8ciramu9cc9q3qcqiv4ue8a6 foreign key (role_id) references roles;
+alter table if exists user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users;
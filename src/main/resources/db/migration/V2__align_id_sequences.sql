@@ -0,0 +1,17 @@
+-- Databases baselined from ddl-auto=update used IDENTITY ids for tasks, projects and developers.
+-- The entities now draw ids from pooled sequences (allocationSize = 50), so make sure each
+-- sequence exists with a matching increment and hands out blocks above the current max id.
+
+create sequence if not exists developers_seq start with 1 increment by 50;
+create sequence if not exists projects_seq start with 1 increment by 50;
+create sequence if not exists tasks_seq start with 1 increment by 50;
+
+alter sequence developers_seq increment by 50;
+alter sequence projects_seq increment by 50;
+alter sequence tasks_seq increment by 50;
+
+-- The pooled optimizer treats a sequence value as the top of its block, so max(id) + 50 keeps
+-- the next block clear of existing rows. Empty tables are left alone.
+select setval('developers_seq', max_id + 50) from (select max(id) as max_id from developers) m where max_id is not null;
+select setval('projects_seq', max_id + 50) from (select max(id) as max_id from projects) m where max_id is not null;
+select setval('tasks_seq', max_id + 50) from (select max(id) as max_id from tasks) m where max_id is not null;
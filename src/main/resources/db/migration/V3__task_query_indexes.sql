@@ -0,0 +1,21 @@
+-- Indexes for the TaskRepository / DeveloperRepository queries on the hot paths.
+
+-- Paged listings by project (findByProjectId), keyset scrolling by project ordered by (due_date, id),
+-- and the cascade delete of a project's tasks.
+create index idx_tasks_project_due_date_id on tasks (project_id, due_date, id);
+
+-- countTasksByStatusForProject: GROUP BY status within one project is answered from the index.
+create index idx_tasks_project_status on tasks (project_id, status);
+
+-- Same pair for developers: findByDeveloperId, keyset scrolling by developer, and
+-- findTopDevelopersByCompletedTasks (developer_id with status = 'COMPLETED').
+create index idx_tasks_developer_due_date_id on tasks (developer_id, due_date, id);
+create index idx_tasks_developer_status on tasks (developer_id, status);
+
+-- Global keyset scrolling and listings sorted by due date.
+create index idx_tasks_due_date_id on tasks (due_date, id);
+
+-- findOverdueTasks and findByDueDateBeforeAndStatusNotIn only ever look at open tasks,
+-- which are a small slice of the table once work piles up as COMPLETED/CANCELLED.
+create index idx_tasks_open_due_date on tasks (due_date, id)
+    where status not in ('COMPLETED', 'CANCELLED');
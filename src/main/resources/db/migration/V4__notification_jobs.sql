@@ -0,0 +1,28 @@
+-- Durable outgoing email queue. Workers claim due rows with FOR UPDATE SKIP LOCKED, mark them
+-- SENDING with next_attempt_at as the claim's expiry, and record SENT, a retry, or DEAD afterwards.
+
+create sequence notification_jobs_seq start with 1 increment by 50;
+
+create table notification_jobs (
+    id bigint not null,
+    recipient varchar(120) not null,
+    subject varchar(255) not null,
+    body text not null,
+    html boolean not null,
+    status varchar(255) not null check (status in ('PENDING','SENDING','SENT','DEAD')),
+    attempts integer not null,
+    next_attempt_at timestamp(6) not null,
+    last_error varchar(1000),
+    sent_at timestamp(6),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    primary key (id)
+);
+
+-- The claim query: due jobs in order. SENT and DEAD rows, the bulk of the table, stay out of the index.
+create index idx_notification_jobs_due on notification_jobs (next_attempt_at, id)
+    where status in ('PENDING', 'SENDING');
+
+-- Purging sent jobs past their retention.
+create index idx_notification_jobs_sent_at on notification_jobs (sent_at)
+    where status = 'SENT';
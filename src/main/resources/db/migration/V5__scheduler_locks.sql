@@ -0,0 +1,10 @@
+-- Cluster-wide locks for scheduled jobs. A node holds a lock while locked_until is in the future;
+-- taking it is a conditional UPDATE (or the first INSERT), so only one node wins each run.
+
+create table scheduler_locks (
+    name varchar(100) not null,
+    locked_until timestamp(6) not null,
+    locked_at timestamp(6) not null,
+    locked_by varchar(255) not null,
+    primary key (name)
+);
@@ -0,0 +1,72 @@
+package com.example.clb.projecttracker;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The migrations target PostgreSQL (partial indexes, setval) and tests run on H2 with Flyway disabled,
+ * so these checks cover what can go wrong without a Postgres instance: ordering and entity coverage.
+ */
+class MigrationScriptsTest {
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("create table (?:if not exists )?(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    @Test
+    void migrationsAreVersionedWithoutGaps() {
+        MigrationInfo[] pending = Flyway.configure()
+                .dataSource("jdbc:h2:mem:migration_scripts", "sa", "")
+                .locations("classpath:db/migration")
+                .validateMigrationNaming(true)
+                .load()
+                .info()
+                .pending();
+
+        assertThat(pending).isNotEmpty();
+        for (int i = 0; i < pending.length; i++) {
+            assertThat(pending[i].getVersion().getVersion()).isEqualTo(String.valueOf(i + 1));
+            assertThat(pending[i].getDescription()).isNotBlank();
+        }
+    }
+
+    @Test
+    void everyEntityTableIsCreatedByMigration() throws IOException {
+        Set<String> createdTables = new HashSet<>();
+        for (Resource script : new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/*.sql")) {
+            Matcher matcher = CREATE_TABLE.matcher(script.getContentAsString(StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                createdTables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+            }
+        }
+
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        Set<BeanDefinition> entities = scanner.findCandidateComponents(ProjectTrackerApplication.class.getPackageName());
+
+        assertThat(entities).isNotEmpty();
+        for (BeanDefinition entity : entities) {
+            Class<?> type = ClassUtils.resolveClassName(entity.getBeanClassName(), getClass().getClassLoader());
+            Table table = type.getAnnotation(Table.class);
+            assertThat(table).as("@Table on %s", type.getSimpleName()).isNotNull();
+            assertThat(createdTables).as("migration creating %s", table.name()).contains(table.name().toLowerCase(Locale.ROOT));
+        }
+    }
+}
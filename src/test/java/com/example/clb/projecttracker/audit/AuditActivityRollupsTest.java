@@ -0,0 +1,118 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.document.AuditActivityRollup;
+import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.document.enums.ActionType;
+import com.example.clb.projecttracker.document.enums.RollupGranularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AuditActivityRollupsTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuditActivityRollups rollups = new AuditActivityRollups(mongoTemplate, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AuditActivityRollup.class)).thenReturn(bulk);
+    }
+
+    @Test
+    void eventsInSameBucketCollapseIntoOneUpsertPerGranularity() {
+        rollups.record(List.of(
+                event(NOON.plusMinutes(5), ActionType.UPDATED),
+                event(NOON.plusMinutes(40), ActionType.UPDATED)));
+
+        Map<String, Update> upserts = upserts(2);
+        assertThat(upserts).containsOnlyKeys(
+                "HOUR|2024-05-01T12:00|Task|UPDATED|alice",
+                "DAY|2024-05-01T00:00|Task|UPDATED|alice");
+        upserts.values().forEach(update -> assertThat(increment(update)).isEqualTo(2L));
+        verify(bulk).execute();
+    }
+
+    @Test
+    void differentHoursShareTheDayBucket() {
+        rollups.record(List.of(
+                event(NOON, ActionType.CREATED),
+                event(NOON.plusHours(1), ActionType.CREATED)));
+
+        Map<String, Update> upserts = upserts(3);
+        assertThat(increment(upserts.get("HOUR|2024-05-01T12:00|Task|CREATED|alice"))).isEqualTo(1L);
+        assertThat(increment(upserts.get("HOUR|2024-05-01T13:00|Task|CREATED|alice"))).isEqualTo(1L);
+        assertThat(increment(upserts.get("DAY|2024-05-01T00:00|Task|CREATED|alice"))).isEqualTo(2L);
+    }
+
+    @Test
+    void bucketDimensionsAreSetOnInsert() {
+        rollups.record(List.of(event(NOON.plusMinutes(5), ActionType.DELETED)));
+
+        Document setOnInsert = (Document) upserts(2).get("HOUR|2024-05-01T12:00|Task|DELETED|alice")
+                .getUpdateObject().get("$setOnInsert");
+        assertThat(setOnInsert).containsEntry("granularity", RollupGranularity.HOUR)
+                .containsEntry("bucketStart", NOON)
+                .containsEntry("entityType", "Task")
+                .containsEntry("actionType", ActionType.DELETED)
+                .containsEntry("userId", "alice");
+    }
+
+    @Test
+    void eventsWithoutTimestampAreSkipped() {
+        rollups.record(List.of(event(null, ActionType.UPDATED)));
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void failedBulkWriteIsCountedNotThrown() {
+        when(bulk.execute()).thenThrow(new IllegalStateException("mongo down"));
+
+        rollups.record(List.of(event(NOON, ActionType.UPDATED), event(NOON, ActionType.CREATED)));
+
+        assertThat(meterRegistry.counter("audit.rollups.failed").count()).isEqualTo(2.0);
+    }
+
+    private Map<String, Update> upserts(int expected) {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(expected)).upsert(queries.capture(), updates.capture());
+        Map<String, Update> upserts = new HashMap<>();
+        for (int i = 0; i < expected; i++) {
+            upserts.put((String) queries.getAllValues().get(i).getQueryObject().get("_id"), updates.getAllValues().get(i));
+        }
+        return upserts;
+    }
+
+    private static long increment(Update update) {
+        return ((Number) ((Document) update.getUpdateObject().get("$inc")).get("count")).longValue();
+    }
+
+    private static AuditLog event(LocalDateTime timestamp, ActionType actionType) {
+        return AuditLog.builder().timestamp(timestamp).entityType("Task").actionType(actionType).userId("alice").build();
+    }
+}
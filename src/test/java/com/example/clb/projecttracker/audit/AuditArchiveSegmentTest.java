@@ -0,0 +1,153 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.document.FieldChange;
+import com.example.clb.projecttracker.document.enums.ActionType;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditArchiveSegmentTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 15, 9, 30, 0, 123_000_000);
+    private static final AuditArchiveSegment.Filter EVERYTHING =
+            new AuditArchiveSegment.Filter(START.minusDays(1), START.plusDays(1), null, null);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void eventsRoundTripWithEveryColumn() throws IOException {
+        List<AuditLog> events = events();
+        Path file = directory.resolve("segment.arc");
+
+        AuditArchiveSegment.Footer written = AuditArchiveSegment.write(file, events);
+        AuditArchiveSegment.Footer footer = AuditArchiveSegment.readFooter(file);
+
+        assertThat(footer).isEqualTo(written)
+                .isEqualTo(new AuditArchiveSegment.Footer(3, START, START.plusMinutes(10), 7L, 9L));
+        assertThat(AuditArchiveSegment.read(file, footer, EVERYTHING)).isEqualTo(events);
+    }
+
+    @Test
+    void filterSelectsMatchingRowsOnly() throws IOException {
+        List<AuditLog> events = events();
+        Path file = directory.resolve("segment.arc");
+        AuditArchiveSegment.Footer footer = AuditArchiveSegment.write(file, events);
+
+        assertThat(AuditArchiveSegment.read(file, footer,
+                new AuditArchiveSegment.Filter(START, START.plusMinutes(10), "Task", null)))
+                .containsExactly(events.get(0));
+        assertThat(AuditArchiveSegment.read(file, footer,
+                new AuditArchiveSegment.Filter(START.minusDays(1), START.plusDays(1), null, 9L)))
+                .containsExactly(events.get(2));
+        assertThat(AuditArchiveSegment.read(file, footer,
+                new AuditArchiveSegment.Filter(START.plusDays(1), START.plusDays(2), null, null)))
+                .isEmpty();
+    }
+
+    @Test
+    void footerRulesOutSegmentsByTimeAndEntityId() {
+        AuditArchiveSegment.Footer footer = new AuditArchiveSegment.Footer(3, START, START.plusMinutes(10), 7L, 9L);
+
+        assertThat(footer.overlaps(START.plusMinutes(5), START.plusHours(1), null)).isTrue();
+        assertThat(footer.overlaps(START.minusHours(1), START, null)).isFalse();
+        assertThat(footer.overlaps(START.plusMinutes(11), START.plusHours(1), null)).isFalse();
+        assertThat(footer.overlaps(START, START.plusHours(1), 8L)).isTrue();
+        assertThat(footer.overlaps(START, START.plusHours(1), 10L)).isFalse();
+    }
+
+    @Test
+    void truncatedFileHasNoFooter() throws IOException {
+        Path file = directory.resolve("short.arc");
+        Files.write(file, new byte[AuditArchiveSegment.FOOTER_BYTES - 1]);
+
+        assertThatThrownBy(() -> AuditArchiveSegment.readFooter(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void footerWithoutMagicIsRejected() throws IOException {
+        Path file = directory.resolve("segment.arc");
+        AuditArchiveSegment.write(file, events());
+        overwrite(file, Files.size(file) - AuditArchiveSegment.FOOTER_BYTES, new byte[] {0, 0, 0, 0});
+
+        assertThatThrownBy(() -> AuditArchiveSegment.readFooter(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void implausibleRowCountIsRejected() throws IOException {
+        Path file = directory.resolve("segment.arc");
+        AuditArchiveSegment.write(file, events());
+        overwrite(file, Files.size(file) - AuditArchiveSegment.FOOTER_BYTES + 4, ByteBuffer.allocate(4).putInt(Integer.MAX_VALUE).array());
+
+        assertThatThrownBy(() -> AuditArchiveSegment.readFooter(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void bodyShorterThanFooterCountFailsWithIOException() throws IOException {
+        Path file = directory.resolve("segment.arc");
+        AuditArchiveSegment.Footer footer = AuditArchiveSegment.write(file, events());
+        AuditArchiveSegment.Footer overstated = new AuditArchiveSegment.Footer(footer.count() + 5,
+                footer.minTimestamp(), footer.maxTimestamp(), footer.minEntityId(), footer.maxEntityId());
+
+        assertThatThrownBy(() -> AuditArchiveSegment.read(file, overstated, EVERYTHING)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void damagedCompressionFailsWithIOException() throws IOException {
+        Path file = directory.resolve("segment.arc");
+        AuditArchiveSegment.Footer footer = AuditArchiveSegment.write(file, events());
+        overwrite(file, 0, new byte[] {0, 0});
+
+        assertThatThrownBy(() -> AuditArchiveSegment.read(file, footer, EVERYTHING)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void outOfRangeDictionaryIndexFailsWithIOException() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(body)) {
+            out.write(1); // Timestamp delta
+            out.write(new ObjectId().toByteArray());
+            out.write(0); // Empty entity type dictionary...
+            out.write(5); // ...but the row points at entry 5
+        }
+        Path file = directory.resolve("crafted.arc");
+        Files.write(file, body.toByteArray());
+        AuditArchiveSegment.Footer footer = new AuditArchiveSegment.Footer(1, START, START, 1L, 1L);
+
+        assertThatThrownBy(() -> AuditArchiveSegment.read(file, footer, EVERYTHING)).isInstanceOf(IOException.class);
+    }
+
+    private static List<AuditLog> events() {
+        return List.of(
+                AuditLog.builder().id(new ObjectId().toHexString()).timestamp(START).entityType("Task").entityId(7L)
+                        .projectId(3L).actionType(ActionType.UPDATED).userId("alice").details("Status changed")
+                        .changes(List.of(new FieldChange("status", "TO_DO", "IN_PROGRESS"), new FieldChange("developerId", null, "4")))
+                        .build(),
+                AuditLog.builder().id(new ObjectId().toHexString()).timestamp(START.plusMinutes(2)).entityType("Project")
+                        .build(),
+                AuditLog.builder().id(new ObjectId().toHexString()).timestamp(START.plusMinutes(10)).entityType("Task").entityId(9L)
+                        .actionType(ActionType.DELETED).userId("bob").details("Deleted: été")
+                        .build());
+    }
+
+    private static void overwrite(Path file, long position, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.scheduler.ClusterLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AuditArchiveTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final ClusterLock clusterLock = mock(ClusterLock.class);
+    private final AppProperties appProperties = new AppProperties();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties.Archive archive = appProperties.getAudit().getArchive();
+        archive.setEnabled(true);
+        archive.setDirectory(directory.toString());
+        archive.setSegmentEvents(10);
+    }
+
+    @Test
+    void archivingSkipsWhenAnotherNodeHoldsTheLock() throws IOException {
+        when(clusterLock.runExclusively(eq("audit-archive"), any())).thenReturn(false);
+
+        archive(mongoTemplate).archiveExpired();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void segmentsArchivedByAnotherInstanceAreFoundThroughSharedDirectory() throws IOException {
+        holdLock();
+        AuditArchive reader = archive(mock(MongoTemplate.class));
+        List<AuditLog> expired = List.of(event(LocalDateTime.of(2023, 1, 1, 10, 0)), event(LocalDateTime.of(2023, 1, 1, 11, 0)));
+        when(mongoTemplate.find(any(Query.class), eq(AuditLog.class))).thenReturn(expired);
+
+        archive(mongoTemplate).archiveExpired();
+
+        verify(mongoTemplate).remove(any(Query.class), eq(AuditLog.class));
+        assertThat(reader.find(LocalDateTime.of(2023, 1, 1, 0, 0), LocalDateTime.of(2023, 1, 2, 0, 0), null, null, 10))
+                .containsExactly(expired.get(1), expired.get(0));
+    }
+
+    @Test
+    void leftoverTempFilesAreDeletedOnlyUnderTheLock() throws IOException {
+        Path temp = Files.createFile(directory.resolve("audit-1-abc-2.tmp"));
+        when(clusterLock.runExclusively(eq("audit-archive"), any())).thenReturn(false);
+
+        AuditArchive archive = archive(mongoTemplate);
+        archive.archiveExpired();
+        assertThat(temp).exists();
+
+        holdLock();
+        when(mongoTemplate.find(any(Query.class), eq(AuditLog.class))).thenReturn(List.of());
+        archive.archiveExpired();
+        assertThat(temp).doesNotExist();
+    }
+
+    private void holdLock() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        }).when(clusterLock).runExclusively(eq("audit-archive"), any());
+    }
+
+    private AuditArchive archive(MongoTemplate mongoTemplate) throws IOException {
+        return new AuditArchive(mongoTemplate, clusterLock, appProperties, new SimpleMeterRegistry());
+    }
+
+    private static AuditLog event(LocalDateTime timestamp) {
+        return AuditLog.builder().id(new ObjectId().toHexString()).timestamp(timestamp).entityType("Task").entityId(1L).build();
+    }
+}
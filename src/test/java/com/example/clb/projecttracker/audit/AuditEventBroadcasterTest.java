@@ -0,0 +1,106 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditEventBroadcasterTest {
+
+    private final AppProperties appProperties = new AppProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentSubscribesNeverExceedLimit() throws Exception {
+        appProperties.getAudit().setStreamMaxSubscribers(5);
+        AuditEventBroadcaster broadcaster = new AuditEventBroadcaster(appProperties, meterRegistry, Runnable::run);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 64; i++) {
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        broadcaster.subscribe(null, null, null);
+                        return true;
+                    } catch (ServiceUnavailableException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            long accepted = 0;
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get(5, TimeUnit.SECONDS)) {
+                    accepted++;
+                }
+            }
+            assertThat(accepted).isEqualTo(5);
+            assertThat(meterRegistry.get("audit.stream.subscribers").gauge().value()).isEqualTo(5);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void slotIsFreedWhenSubscriberGoesAway() {
+        appProperties.getAudit().setStreamMaxSubscribers(1);
+        AuditEventBroadcaster broadcaster = new AuditEventBroadcaster(appProperties, meterRegistry, Runnable::run);
+        SseEmitter emitter = broadcaster.subscribe(null, null, null);
+        assertThatThrownBy(() -> broadcaster.subscribe(null, null, null)).isInstanceOf(ServiceUnavailableException.class);
+
+        // Sending to a completed emitter fails, which is how a vanished client shows up
+        emitter.complete();
+        broadcaster.publish(event("Task"));
+
+        assertThat(broadcaster.subscribe(null, null, null)).isNotNull();
+    }
+
+    @Test
+    void slowSubscriberIsDroppedAndItsSlotFreed() {
+        appProperties.getAudit().setStreamMaxSubscribers(1);
+        appProperties.getAudit().setStreamBufferSize(1);
+        List<Runnable> pending = new ArrayList<>();
+        TaskExecutor stalled = pending::add;
+        AuditEventBroadcaster broadcaster = new AuditEventBroadcaster(appProperties, meterRegistry, stalled);
+        broadcaster.subscribe(null, null, null);
+
+        broadcaster.publish(event("Task"));
+        broadcaster.publish(event("Task"));
+
+        assertThat(meterRegistry.get("audit.stream.slow.consumers.dropped").counter().count()).isEqualTo(1);
+        assertThat(broadcaster.subscribe(null, null, null)).isNotNull();
+    }
+
+    @Test
+    void eventsOnlyReachMatchingSubscribers() {
+        List<Runnable> pending = new ArrayList<>();
+        AuditEventBroadcaster broadcaster = new AuditEventBroadcaster(appProperties, meterRegistry, pending::add);
+        broadcaster.subscribe("Project", null, null);
+
+        broadcaster.publish(event("Task"));
+        assertThat(pending).isEmpty();
+
+        broadcaster.publish(event("Project"));
+        assertThat(pending).hasSize(1);
+    }
+
+    private static AuditLog event(String entityType) {
+        return AuditLog.builder().entityType(entityType).entityId(1L).userId("SYSTEM").build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.document.AuditActivityRollup;
+import com.example.clb.projecttracker.document.AuditLog;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditLogIndexBootstrapperTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class, RETURNS_DEEP_STUBS);
+    private final IndexOperations auditIndexOps = mock(IndexOperations.class);
+    private final IndexOperations rollupIndexOps = mock(IndexOperations.class);
+    private final AppProperties appProperties = new AppProperties();
+    private final AuditLogIndexBootstrapper bootstrapper = new AuditLogIndexBootstrapper(mongoTemplate, appProperties);
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.indexOps(AuditLog.class)).thenReturn(auditIndexOps);
+        when(mongoTemplate.indexOps(AuditActivityRollup.class)).thenReturn(rollupIndexOps);
+        when(mongoTemplate.getCollectionName(AuditLog.class)).thenReturn("audit_logs");
+    }
+
+    @Test
+    void createsEveryManagedIndexWithTtlFromRetention() {
+        appProperties.getAudit().setRetention(Duration.ofDays(30));
+        when(auditIndexOps.getIndexInfo()).thenReturn(List.of());
+
+        bootstrapper.ensureIndexes();
+
+        ArgumentCaptor<Index> indexes = ArgumentCaptor.forClass(Index.class);
+        verify(auditIndexOps, atLeastOnce()).ensureIndex(indexes.capture());
+        assertThat(indexes.getAllValues()).extracting(index -> index.getIndexOptions().get("name"))
+                .contains("entityType_1_entityId_1_timestamp_-1__id_-1", "timestamp_-1__id_-1", AuditLogIndexBootstrapper.TIMESTAMP_INDEX);
+        Index timestamp = indexes.getAllValues().stream()
+                .filter(index -> AuditLogIndexBootstrapper.TIMESTAMP_INDEX.equals(index.getIndexOptions().get("name")))
+                .findFirst().orElseThrow();
+        assertThat(timestamp.getIndexOptions().get("expireAfterSeconds")).isEqualTo(Duration.ofDays(30).toSeconds());
+        verify(rollupIndexOps, atLeastOnce()).ensureIndex(any());
+    }
+
+    @Test
+    void changedRetentionIsAppliedInPlace() {
+        appProperties.getAudit().setRetention(Duration.ofDays(7));
+        when(auditIndexOps.getIndexInfo()).thenReturn(List.of(timestampIndex(Duration.ofDays(30))));
+        MongoDatabase db = mongoTemplate.getDb();
+
+        bootstrapper.ensureIndexes();
+
+        ArgumentCaptor<Document> command = ArgumentCaptor.forClass(Document.class);
+        verify(db).runCommand(command.capture());
+        assertThat(command.getValue().getString("collMod")).isEqualTo("audit_logs");
+        assertThat(command.getValue().get("index", Document.class).get("expireAfterSeconds")).isEqualTo(Duration.ofDays(7).toSeconds());
+    }
+
+    @Test
+    void unchangedRetentionLeavesTtlAlone() {
+        appProperties.getAudit().setRetention(Duration.ofDays(30));
+        when(auditIndexOps.getIndexInfo()).thenReturn(List.of(timestampIndex(Duration.ofDays(30))));
+        MongoDatabase db = mongoTemplate.getDb();
+
+        bootstrapper.ensureIndexes();
+
+        verify(db, never()).runCommand(any(Document.class));
+    }
+
+    @Test
+    void unreachableMongoIsLoggedNotThrown() {
+        when(mongoTemplate.indexOps(AuditLog.class)).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatCode(bootstrapper::ensureIndexes).doesNotThrowAnyException();
+    }
+
+    private static IndexInfo timestampIndex(Duration ttl) {
+        return IndexInfo.indexInfoOf(new Document("name", AuditLogIndexBootstrapper.TIMESTAMP_INDEX)
+                .append("key", new Document("timestamp", 1))
+                .append("expireAfterSeconds", ttl.toSeconds()));
+    }
+}
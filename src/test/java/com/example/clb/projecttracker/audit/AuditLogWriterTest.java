@@ -0,0 +1,131 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.document.enums.ActionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditLogWriterTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final AuditActivityRollups activityRollups = mock(AuditActivityRollups.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AppProperties appProperties = new AppProperties();
+    private AuditLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        appProperties.getAudit().setQueueCapacity(100);
+        appProperties.getAudit().setBatchSize(10);
+        appProperties.getAudit().setFlushInterval(Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null && writer.isRunning()) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesQueuedEventsInBatches() throws Exception {
+        writer = newWriter();
+        for (int i = 0; i < 25; i++) {
+            assertThat(writer.submit(event(i))).isTrue();
+        }
+
+        writer.start();
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.get("audit.events.written").counter().count() == 25);
+
+        ArgumentCaptor<Collection<AuditLog>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoTemplate, atLeastOnce()).insert(batches.capture(), eq(AuditLog.class));
+        assertThat(batches.getAllValues()).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+        verify(activityRollups, atLeastOnce()).record(anyCollection());
+    }
+
+    @Test
+    void dropsEventsWhenQueueIsFull() throws Exception {
+        appProperties.getAudit().setQueueCapacity(2);
+        writer = newWriter();
+
+        assertThat(writer.submit(event(1))).isTrue();
+        assertThat(writer.submit(event(2))).isTrue();
+        assertThat(writer.submit(event(3))).isFalse();
+
+        assertThat(meterRegistry.get("audit.events.dropped").tag("reason", "queue_full").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void blockPolicyWaitsForSpaceBeforeDropping() throws Exception {
+        appProperties.getAudit().setQueueCapacity(1);
+        appProperties.getAudit().setOverflowPolicy(AppProperties.Audit.OverflowPolicy.BLOCK);
+        appProperties.getAudit().setBlockTimeout(Duration.ofMillis(100));
+        writer = newWriter();
+        writer.submit(event(1));
+
+        long started = System.nanoTime();
+        assertThat(writer.submit(event(2))).isFalse();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void failedFlushIsCountedAndWriterKeepsGoing() throws Exception {
+        when(mongoTemplate.insert(any(Collection.class), eq(AuditLog.class)))
+                .thenThrow(new DataAccessResourceFailureException("mongo down"))
+                .thenReturn(List.of());
+        writer = newWriter();
+        writer.start();
+
+        writer.submit(event(1));
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.get("audit.events.dropped").tag("reason", "flush_failed").counter().count() == 1);
+        writer.submit(event(2));
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.get("audit.events.written").counter().count() == 1);
+    }
+
+    @Test
+    void stopWritesWhatIsStillQueued() throws Exception {
+        writer = newWriter();
+        writer.start();
+        for (int i = 0; i < 5; i++) {
+            writer.submit(event(i));
+        }
+
+        writer.stop();
+
+        assertThat(meterRegistry.get("audit.events.written").counter().count()).isEqualTo(5);
+    }
+
+    private AuditLogWriter newWriter() throws Exception {
+        return new AuditLogWriter(mongoTemplate, new ObjectMapper(), activityRollups, appProperties, meterRegistry);
+    }
+
+    private static AuditLog event(long entityId) {
+        return AuditLog.builder().entityType("Task").entityId(entityId).actionType(ActionType.UPDATED).userId("SYSTEM").build();
+    }
+}
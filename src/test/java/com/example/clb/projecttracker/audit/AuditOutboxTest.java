@@ -0,0 +1,145 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.document.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class AuditOutboxTest {
+
+    private final AuditLogWriter auditLogWriter = mock(AuditLogWriter.class);
+    private final AuditEventBroadcaster auditEventBroadcaster = mock(AuditEventBroadcaster.class);
+    private final AuditOutbox outbox = new AuditOutbox(auditLogWriter, auditEventBroadcaster);
+
+    private final NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+    private final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    private final TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+
+    {
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Test
+    void eventsOutsideTransactionAreDispatchedAtOnce() {
+        AuditLog event = event("created");
+
+        outbox.add(event);
+
+        verify(auditLogWriter).submit(event);
+        verify(auditEventBroadcaster).publish(event);
+    }
+
+    @Test
+    void eventsAreHeldUntilCommit() {
+        AuditLog first = event("first");
+        AuditLog second = event("second");
+
+        transaction.executeWithoutResult(status -> {
+            outbox.add(first);
+            outbox.add(second);
+            verifyNoInteractions(auditLogWriter, auditEventBroadcaster);
+        });
+
+        verify(auditLogWriter).submit(first);
+        verify(auditLogWriter).submit(second);
+        verify(auditEventBroadcaster).publish(first);
+        verify(auditEventBroadcaster).publish(second);
+    }
+
+    @Test
+    void rolledBackEventsAreDiscarded() {
+        transaction.executeWithoutResult(status -> {
+            outbox.add(event("discarded"));
+            status.setRollbackOnly();
+        });
+
+        verifyNoInteractions(auditLogWriter, auditEventBroadcaster);
+    }
+
+    @Test
+    void requiresNewTransactionCommitsIndependentlyOfOuterRollback() {
+        AuditLog outer = event("outer");
+        AuditLog inner = event("inner");
+
+        transaction.executeWithoutResult(status -> {
+            outbox.add(outer);
+            newTransaction.executeWithoutResult(nested -> outbox.add(inner));
+            verify(auditLogWriter).submit(inner);
+            status.setRollbackOnly();
+        });
+
+        verify(auditLogWriter, never()).submit(outer);
+        verify(auditEventBroadcaster, never()).publish(outer);
+    }
+
+    @Test
+    void requiresNewRollbackLeavesOuterEventsAlone() {
+        AuditLog outer = event("outer");
+        AuditLog inner = event("inner");
+
+        transaction.executeWithoutResult(status -> {
+            outbox.add(outer);
+            newTransaction.executeWithoutResult(nested -> {
+                outbox.add(inner);
+                nested.setRollbackOnly();
+            });
+        });
+
+        verify(auditLogWriter).submit(outer);
+        verify(auditLogWriter, never()).submit(inner);
+    }
+
+    private static AuditLog event(String details) {
+        return AuditLog.builder().entityType("Task").entityId(1L).details(details).build();
+    }
+
+    // Just enough of a transaction manager for synchronizations, suspension and rollback-only to behave as with JPA
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        private static final ThreadLocal<Integer> depth = ThreadLocal.withInitial(() -> 0);
+
+        @Override
+        protected Object doGetTransaction() {
+            return depth.get();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return (Integer) transaction > 0;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            depth.set(depth.get() + 1);
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            return transaction;
+        }
+
+        @Override
+        protected void doResume(Object transaction, Object suspendedResources) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            depth.set(depth.get() - 1);
+        }
+    }
+}
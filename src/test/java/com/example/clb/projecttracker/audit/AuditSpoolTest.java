@@ -0,0 +1,130 @@
+package com.example.clb.projecttracker.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSpoolTest {
+
+    // "event-N" is 7 bytes, so each record is 15 bytes and a 64-byte segment holds four of them
+    private static final int SEGMENT_SIZE = 64;
+    private static final int RECORD_SIZE = 15;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendedRecordsAreReadUntilAcknowledged() throws IOException {
+        AuditSpool spool = new AuditSpool(directory, SEGMENT_SIZE, 4);
+        for (int i = 0; i < 6; i++) {
+            assertThat(spool.append("event-" + i)).isTrue();
+        }
+
+        AuditSpool.Batch first = spool.read(4);
+        assertThat(first.records()).containsExactly("event-0", "event-1", "event-2", "event-3");
+        assertThat(spool.read(4).records()).isEqualTo(first.records());
+
+        spool.acknowledge(first.end());
+        AuditSpool.Batch second = spool.read(4);
+        assertThat(second.records()).containsExactly("event-4", "event-5");
+        spool.acknowledge(second.end());
+        spool.close();
+
+        AuditSpool reopened = new AuditSpool(directory, SEGMENT_SIZE, 4);
+        assertThat(reopened.read(4).records()).isEmpty();
+        assertThat(reopened.backlogBytes()).isZero();
+        assertThat(Files.exists(segment(0))).isFalse();
+    }
+
+    @Test
+    void tornTailIsDroppedAfterRestart() throws IOException {
+        AuditSpool spool = new AuditSpool(directory, SEGMENT_SIZE, 4);
+        spool.append("event-0");
+        spool.append("event-1");
+        spool.close();
+        corruptPayload(segment(0), RECORD_SIZE);
+
+        AuditSpool reopened = new AuditSpool(directory, SEGMENT_SIZE, 4);
+        reopened.append("event-2");
+
+        assertThat(reopened.read(10).records()).containsExactly("event-0", "event-2");
+    }
+
+    @Test
+    void corruptRecordInOlderSegmentSkipsToNextSegment() throws IOException {
+        AuditSpool spool = new AuditSpool(directory, SEGMENT_SIZE, 4);
+        for (int i = 0; i < 6; i++) {
+            spool.append("event-" + i);
+        }
+        corruptPayload(segment(0), RECORD_SIZE);
+
+        assertThat(spool.read(10).records()).containsExactly("event-0", "event-4", "event-5");
+    }
+
+    @Test
+    void corruptRecordInWriteSegmentFencesItAndKeepsLaterAppendsReadable() throws IOException {
+        AuditSpool spool = new AuditSpool(directory, SEGMENT_SIZE, 4);
+        spool.append("event-0");
+        spool.append("event-1");
+        corruptPayload(segment(0), RECORD_SIZE);
+
+        AuditSpool.Batch batch = spool.read(10);
+        assertThat(batch.records()).containsExactly("event-0");
+        spool.acknowledge(batch.end());
+
+        spool.append("event-2");
+        spool.append("event-3");
+
+        AuditSpool.Batch next = spool.read(10);
+        assertThat(next.records()).containsExactly("event-2", "event-3");
+        assertThat(next.end().segment()).isEqualTo(1);
+    }
+
+    @Test
+    void appendIsRefusedWhenRotatingWouldExceedMaxSegments() throws IOException {
+        AuditSpool spool = new AuditSpool(directory, SEGMENT_SIZE, 2);
+        for (int i = 0; i < 8; i++) {
+            assertThat(spool.append("event-" + i)).isTrue();
+        }
+        assertThat(spool.append("event-8")).isFalse();
+
+        // Consuming into segment 1 frees segment 0
+        AuditSpool.Batch batch = spool.read(5);
+        spool.acknowledge(batch.end());
+
+        assertThat(spool.append("event-8")).isTrue();
+        assertThat(spool.read(10).records()).containsExactly("event-5", "event-6", "event-7", "event-8");
+    }
+
+    @Test
+    void oversizedRecordIsRejected() throws IOException {
+        AuditSpool spool = new AuditSpool(directory, SEGMENT_SIZE, 2);
+
+        assertThat(spool.append("x".repeat(SEGMENT_SIZE))).isFalse();
+        assertThat(spool.read(10).records()).isEmpty();
+    }
+
+    private Path segment(long segment) {
+        return directory.resolve(String.format("audit-%020d.seg", segment));
+    }
+
+    // Flips a payload byte so the stored checksum no longer matches
+    private static void corruptPayload(Path segment, int recordOffset) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.allocate(1);
+            long position = recordOffset + 8L;
+            channel.read(bytes, position);
+            bytes.flip();
+            byte flipped = (byte) (bytes.get() ^ 0xFF);
+            channel.write(ByteBuffer.wrap(new byte[] {flipped}), position);
+        }
+    }
+}
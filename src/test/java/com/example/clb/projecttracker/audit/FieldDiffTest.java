@@ -0,0 +1,49 @@
+package com.example.clb.projecttracker.audit;
+
+import com.example.clb.projecttracker.document.FieldChange;
+import com.example.clb.projecttracker.model.enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FieldDiffTest {
+
+    @Test
+    void onlyChangedFieldsAreRecorded() {
+        assertThat(FieldDiff.create()
+                .compare("title", "Ship it", "Ship it")
+                .compare("status", TaskStatus.TO_DO, TaskStatus.IN_PROGRESS)
+                .compare("dueDate", LocalDate.of(2024, 5, 1), LocalDate.of(2024, 6, 1))
+                .changes())
+                .containsExactly(
+                        new FieldChange("status", "TO_DO", "IN_PROGRESS"),
+                        new FieldChange("dueDate", "2024-05-01", "2024-06-01"));
+    }
+
+    @Test
+    void nullSideIsKeptAsNull() {
+        assertThat(FieldDiff.create()
+                .compare("developerId", null, 7L)
+                .compare("description", "old", null)
+                .compare("projectId", null, null)
+                .changes())
+                .containsExactly(new FieldChange("developerId", null, "7"), new FieldChange("description", "old", null));
+    }
+
+    @Test
+    void longValuesAreTruncated() {
+        String rewritten = "x".repeat(FieldDiff.MAX_VALUE_LENGTH + 50);
+
+        FieldChange change = FieldDiff.create().compare("description", "short", rewritten).changes().get(0);
+
+        assertThat(change.getTo()).hasSize(FieldDiff.MAX_VALUE_LENGTH + 3).endsWith("...");
+        assertThat(change.getFrom()).isEqualTo("short");
+    }
+
+    @Test
+    void noChangesGivesEmptyList() {
+        assertThat(FieldDiff.create().compare("status", TaskStatus.BLOCKED, TaskStatus.BLOCKED).changes()).isEmpty();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.clb.projecttracker.cache;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageKeyGeneratorTest {
+
+    private final AppProperties appProperties = new AppProperties();
+    private final PageKeyGenerator generator = new PageKeyGenerator(appProperties);
+
+    @Test
+    void keyIncludesScopePageSizeAndSort() {
+        Object key = generator.generate(null, null, 42L, PageRequest.of(2, 25, Sort.by("dueDate")), true);
+
+        assertThat(key).isEqualTo(new PageKey(List.of(42L, true), 2, 25, "dueDate:ASC"));
+    }
+
+    @Test
+    void differentPagesSizesAndSortsGetDifferentKeys() {
+        Object first = generator.generate(null, null, PageRequest.of(0, 20));
+
+        assertThat(generator.generate(null, null, PageRequest.of(1, 20))).isNotEqualTo(first);
+        assertThat(generator.generate(null, null, PageRequest.of(0, 50))).isNotEqualTo(first);
+        assertThat(generator.generate(null, null, PageRequest.of(0, 20, Sort.by("title")))).isNotEqualTo(first);
+        assertThat(generator.generate(null, null, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "title"))))
+                .isNotEqualTo(generator.generate(null, null, PageRequest.of(0, 20, Sort.by("title"))));
+    }
+
+    @Test
+    void equivalentSortsShareKey() {
+        Pageable a = PageRequest.of(0, 20, Sort.by(Sort.Order.asc("dueDate"), Sort.Order.desc("title")));
+        Pageable b = PageRequest.of(0, 20, Sort.by("dueDate").and(Sort.by(Sort.Direction.DESC, "title")));
+
+        assertThat(generator.generate(null, null, a)).isEqualTo(generator.generate(null, null, b));
+    }
+
+    @Test
+    void sortModifiersArePartOfKey() {
+        Sort ignoreCase = Sort.by(Sort.Order.asc("title").ignoreCase().nullsLast());
+
+        PageKey key = (PageKey) generator.generate(null, null, PageRequest.of(0, 20, ignoreCase));
+
+        assertThat(key.sort()).isEqualTo("title:ASC:ic:NULLS_LAST");
+    }
+
+    @Test
+    void unpagedRequestsUseSentinelPage() {
+        PageKey key = (PageKey) generator.generate(null, null, 5L, Pageable.unpaged());
+
+        assertThat(key.page()).isEqualTo(-1);
+        assertThat(key.size()).isEqualTo(-1);
+        assertThat(key.scopeId()).isEqualTo(5L);
+    }
+
+    @Test
+    void onlyShallowBoundedPagesAreCacheable() {
+        appProperties.getCache().setMaxCacheablePage(2);
+        appProperties.getCache().setMaxCacheablePageSize(50);
+
+        assertThat(generator.isCacheable(PageRequest.of(1, 50))).isTrue();
+        assertThat(generator.isCacheable(PageRequest.of(2, 50))).isFalse();
+        assertThat(generator.isCacheable(PageRequest.of(0, 51))).isFalse();
+        assertThat(generator.isCacheable(Pageable.unpaged())).isFalse();
+        assertThat(generator.isCacheable(null)).isFalse();
+    }
+}
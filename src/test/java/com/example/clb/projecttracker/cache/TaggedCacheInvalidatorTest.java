@@ -0,0 +1,93 @@
+package com.example.clb.projecttracker.cache;
+
+import com.example.clb.projecttracker.dto.TaskDto;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaggedCacheInvalidatorTest {
+
+    private final CacheTagIndex cacheTagIndex = new CacheTagIndex();
+    private TaggingCaffeineCacheManager cacheManager;
+    private TaggedCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new TaggingCaffeineCacheManager(Map.of(
+                "tasksPage", new TaskPageTagExtractor(key -> CacheTags.ALL_TASKS),
+                "tasksByProjectPages", new TaskPageTagExtractor(key -> CacheTags.project(((PageKey) key).scopeId()))
+        ), cacheTagIndex);
+        cacheManager.registerCustomCache("tasksPage", Caffeine.newBuilder().build());
+        cacheManager.registerCustomCache("tasksByProjectPages", Caffeine.newBuilder().build());
+        invalidator = new TaggedCacheInvalidator(cacheManager, cacheTagIndex);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evictsOnlyEntriesCarryingTag() {
+        Cache byProject = cacheManager.getCache("tasksByProjectPages");
+        PageKey project1 = new PageKey(List.of(1L), 0, 20, "");
+        PageKey project2 = new PageKey(List.of(2L), 0, 20, "");
+        byProject.put(project1, page(task(1L, 1L, 10L)));
+        byProject.put(project2, page(task(2L, 2L, null)));
+
+        invalidator.invalidate(Set.of(CacheTags.developer(10L)));
+
+        assertThat(byProject.get(project1)).isNull();
+        assertThat(byProject.get(project2)).isNotNull();
+        assertThat(cacheTagIndex.keysTaggedWithAny(Set.of(CacheTags.developer(10L)))).isEmpty();
+    }
+
+    @Test
+    void allTasksTagEvictsEveryGlobalPage() {
+        Cache tasksPage = cacheManager.getCache("tasksPage");
+        PageKey byTitle = new PageKey(List.of(), 0, 20, "title:ASC");
+        PageKey byUpdatedAt = new PageKey(List.of(), 0, 20, "updatedAt:DESC");
+        tasksPage.put(byTitle, page(task(1L, 1L, null)));
+        tasksPage.put(byUpdatedAt, page(task(2L, 2L, null)));
+
+        invalidator.invalidate(Set.of(CacheTags.ALL_TASKS));
+
+        assertThat(tasksPage.get(byTitle)).isNull();
+        assertThat(tasksPage.get(byUpdatedAt)).isNull();
+    }
+
+    @Test
+    void evictionIsDeferredUntilCommit() {
+        Cache tasksPage = cacheManager.getCache("tasksPage");
+        PageKey key = new PageKey(List.of(), 0, 20, "");
+        tasksPage.put(key, page(task(1L, 1L, null)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        invalidator.invalidate(Set.of(CacheTags.ALL_TASKS));
+        assertThat(tasksPage.get(key)).isNotNull();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(tasksPage.get(key)).isNull();
+    }
+
+    private static PageImpl<TaskDto> page(TaskDto... tasks) {
+        return new PageImpl<>(List.of(tasks));
+    }
+
+    private static TaskDto task(Long id, Long projectId, Long developerId) {
+        return new TaskDto(id, "Task " + id, null, null, null, null, projectId, "Project", developerId, "Developer");
+    }
+}
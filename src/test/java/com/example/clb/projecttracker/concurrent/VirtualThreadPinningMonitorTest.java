@@ -0,0 +1,38 @@
+package com.example.clb.projecttracker.concurrent;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(AppProperties.class, AppProperties::new)
+            .withUserConfiguration(VirtualThreadPinningMonitor.class);
+
+    @Test
+    void absentWithPlatformThreads() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void absentBeforeJava21EvenWhenEnabled() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void runningWithVirtualThreads() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertThat(context.getBean(VirtualThreadPinningMonitor.class).isRunning()).isTrue());
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.clb.projecttracker.config;
+
+import com.example.clb.projecttracker.cache.CacheTagIndex;
+import com.example.clb.projecttracker.dto.TaskStatusCountDto;
+import com.example.clb.projecttracker.model.enums.TaskStatus;
+import com.example.clb.projecttracker.repository.DeveloperRepository;
+import com.example.clb.projecttracker.repository.TaskRepository;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CacheConfigTest {
+
+    private final AppProperties appProperties = new AppProperties();
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final DeveloperRepository developerRepository = mock(DeveloperRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        appProperties.getCache().getDefaults().setMaximumSize(10L);
+    }
+
+    @Test
+    void dynamicRegionsIgnoreDefaultRefreshAfterWrite() {
+        appProperties.getCache().getDefaults().setRefreshAfterWrite(Duration.ofMinutes(1));
+
+        Cache cache = cacheManager().getCache("someUnlistedRegion");
+        cache.put("key", "value");
+
+        assertThat(cache.get("key", String.class)).isEqualTo("value");
+        assertThat(nativeCache(cache)).isNotInstanceOf(LoadingCache.class);
+        assertThat(nativeCache(cache).policy().refreshAfterWrite()).isEmpty();
+    }
+
+    @Test
+    void dynamicRegionsAreBoundedByDefaults() {
+        Cache cache = cacheManager().getCache("someUnlistedRegion");
+
+        assertThat(nativeCache(cache).policy().eviction().orElseThrow().getMaximum()).isEqualTo(10L);
+    }
+
+    @Test
+    void refreshRegionReloadsThroughRepository() {
+        refreshAfter("taskStatusCountsOverall", Duration.ofMinutes(2));
+        List<TaskStatusCountDto> fresh = List.of(new TaskStatusCountDto(TaskStatus.COMPLETED, 3L));
+        when(taskRepository.countTasksByStatusOverall()).thenReturn(fresh);
+
+        Cache cache = cacheManager().getCache("taskStatusCountsOverall");
+        cache.put("overall", List.of());
+        ((LoadingCache<Object, Object>) nativeCache(cache)).refresh("overall").join();
+
+        // Caffeine swaps the reloaded value in from a callback that may still be running after join()
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(cache.get("overall").get()).isEqualTo(fresh));
+    }
+
+    @Test
+    void refreshRegionMissFallsThroughToCacheableMethod() {
+        refreshAfter("taskStatusCountsByProject", Duration.ofMinutes(2));
+
+        Cache cache = cacheManager().getCache("taskStatusCountsByProject");
+
+        assertThat(cache.get(42L)).isNull();
+        verify(taskRepository, never()).countTasksByStatusForProject(42L);
+    }
+
+    @Test
+    void topDevelopersReloadSkipsRepositoryForNonPositiveLimit() {
+        refreshAfter("topDevelopers", Duration.ofMinutes(5));
+
+        Cache cache = cacheManager().getCache("topDevelopers");
+        cache.put(0, List.of());
+        ((LoadingCache<Object, Object>) nativeCache(cache)).refresh(0).join();
+
+        assertThat(cache.get(0).get()).isEqualTo(List.of());
+        verify(developerRepository, never()).findTopDevelopersByCompletedTasks(any());
+    }
+
+    @Test
+    void refreshAfterWriteIsIgnoredForRegionsWithoutLoader() {
+        refreshAfter("projects", Duration.ofMinutes(1));
+
+        Cache cache = cacheManager().getCache("projects");
+
+        assertThat(nativeCache(cache)).isNotInstanceOf(LoadingCache.class);
+        assertThat(nativeCache(cache).policy().refreshAfterWrite()).isEmpty();
+    }
+
+    @Test
+    void maximumWeightTakesPrecedenceOverDefaultSize() {
+        AppProperties.CacheSpec spec = new AppProperties.CacheSpec();
+        spec.setMaximumWeight(500L);
+        appProperties.getCache().getSpecs().put("tasksPage", spec);
+
+        Cache cache = cacheManager().getCache("tasksPage");
+
+        assertThat(nativeCache(cache).policy().eviction().orElseThrow().isWeighted()).isTrue();
+        assertThat(nativeCache(cache).policy().eviction().orElseThrow().getMaximum()).isEqualTo(500L);
+    }
+
+    private void refreshAfter(String name, Duration refreshAfterWrite) {
+        AppProperties.CacheSpec spec = new AppProperties.CacheSpec();
+        spec.setRefreshAfterWrite(refreshAfterWrite);
+        appProperties.getCache().getSpecs().put(name, spec);
+    }
+
+    private CacheManager cacheManager() {
+        return new CacheConfig().cacheManager(appProperties, new CacheTagIndex(),
+                provider(taskRepository), provider(developerRepository));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ObjectProvider<T> provider(T bean) {
+        ObjectProvider<T> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(bean);
+        return provider;
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(Cache cache) {
+        return ((CaffeineCache) cache).getNativeCache();
+    }
+}
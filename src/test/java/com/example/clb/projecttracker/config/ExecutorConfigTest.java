@@ -0,0 +1,119 @@
+package com.example.clb.projecttracker.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutorConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void poolIsSizedFromProperties() {
+        AppProperties.Pool pool = new AppProperties.Pool(2, 4, 8, AppProperties.Pool.RejectionPolicy.ABORT);
+        executor = executor(pool);
+
+        assertThat(executor.getCorePoolSize()).isEqualTo(2);
+        assertThat(executor.getMaxPoolSize()).isEqualTo(4);
+        assertThat(executor.getQueueCapacity()).isEqualTo(8);
+        assertThat(executor.getThreadNamePrefix()).isEqualTo("test-");
+    }
+
+    @Test
+    void abortRejectsAndCounts() {
+        executor = saturated(AppProperties.Pool.RejectionPolicy.ABORT);
+
+        assertThatThrownBy(() -> executor.execute(() -> { })).isInstanceOf(TaskRejectedException.class);
+        assertThat(rejected()).isEqualTo(1.0);
+    }
+
+    @Test
+    void callerRunsExecutesOnSubmittingThreadAndCounts() {
+        executor = saturated(AppProperties.Pool.RejectionPolicy.CALLER_RUNS);
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertThat(ranOn.get()).isSameAs(Thread.currentThread());
+        assertThat(rejected()).isEqualTo(1.0);
+    }
+
+    @Test
+    void discardDropsSilentlyButCounts() {
+        executor = saturated(AppProperties.Pool.RejectionPolicy.DISCARD);
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertThat(ranOn.get()).isNull();
+        assertThat(rejected()).isEqualTo(1.0);
+    }
+
+    @Test
+    void auditPoolRunsSendForEverySubscriberAtOnce() {
+        AppProperties appProperties = new AppProperties();
+        int subscribers = appProperties.getAudit().getStreamMaxSubscribers();
+        executor = new ExecutorConfig().auditExecutor(appProperties, meterRegistry);
+        executor.initialize();
+        CountDownLatch sending = new CountDownLatch(subscribers);
+
+        // Every send stalls, like a client that stopped reading; none may wait behind another
+        for (int i = 0; i < subscribers; i++) {
+            executor.execute(() -> {
+                sending.countDown();
+                await(release);
+            });
+        }
+
+        await(sending);
+        assertThat(sending.getCount()).isZero();
+    }
+
+    // One thread busy and one task queued, so the next submission is rejected
+    private ThreadPoolTaskExecutor saturated(AppProperties.Pool.RejectionPolicy policy) {
+        ThreadPoolTaskExecutor saturated = executor(new AppProperties.Pool(1, 1, 1, policy));
+        CountDownLatch started = new CountDownLatch(1);
+        saturated.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        await(started);
+        saturated.execute(() -> await(release));
+        return saturated;
+    }
+
+    private ThreadPoolTaskExecutor executor(AppProperties.Pool pool) {
+        ThreadPoolTaskExecutor created = ExecutorConfig.boundedExecutor("test", "test-", pool, meterRegistry);
+        created.initialize();
+        return created;
+    }
+
+    private double rejected() {
+        return meterRegistry.counter("executor.rejected", "name", "test").count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.clb.projecttracker.controller;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.config.ExecutorConfig;
+import com.example.clb.projecttracker.exception.ServiceUnavailableException;
+import com.example.clb.projecttracker.scheduler.TaskNotificationScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskNotificationControllerTest {
+
+    private final TaskNotificationScheduler scheduler = mock(TaskNotificationScheduler.class);
+    private ThreadPoolTaskExecutor reportingExecutor;
+    private TaskNotificationController controller;
+
+    @BeforeEach
+    void setUp() {
+        reportingExecutor = new ExecutorConfig().reportingExecutor(new AppProperties(), new SimpleMeterRegistry());
+        reportingExecutor.initialize();
+        controller = new TaskNotificationController(scheduler, reportingExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportingExecutor.shutdown();
+    }
+
+    @Test
+    void triggerStartsRun() {
+        assertThat(controller.triggerOverdueTaskNotifications().getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+
+        verify(scheduler, timeout(5000)).sendOverdueTaskNotifications();
+    }
+
+    @Test
+    void triggerDuringManualRunIsRefusedRatherThanQueued() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(scheduler).sendOverdueTaskNotifications();
+        controller.triggerOverdueTaskNotifications();
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(controller::triggerOverdueTaskNotifications).isInstanceOf(ServiceUnavailableException.class);
+
+        release.countDown();
+        verify(scheduler, timeout(5000).times(1)).sendOverdueTaskNotifications();
+    }
+
+    @Test
+    void triggerDuringScheduledRunIsRefused() {
+        when(scheduler.isRunning()).thenReturn(true);
+
+        assertThatThrownBy(controller::triggerOverdueTaskNotifications)
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("already in progress");
+        verify(scheduler, never()).sendOverdueTaskNotifications();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.clb.projecttracker.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaLagMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void admitsOnlyReplicasWithinMaxLag() throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-b", replicaWithLag(1.5));
+        replicas.put("replica-a", replicaWithLag(0));
+        replicas.put("replica-c", replicaWithLag(12));
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicas, Duration.ofSeconds(5), meterRegistry);
+
+        assertThat(monitor.getHealthyReplicas()).isEmpty();
+        monitor.checkReplicas();
+
+        assertThat(monitor.getHealthyReplicas()).containsExactly("replica-a", "replica-b");
+        assertThat(meterRegistry.get("app.datasource.replica.lag").tag("replica", "replica-c").gauge().value()).isEqualTo(12.0);
+    }
+
+    @Test
+    void unreachableReplicaIsExcludedAndReportsNaN() throws SQLException {
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("connection refused"));
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(Map.of("replica-a", down), Duration.ofSeconds(5), meterRegistry);
+
+        monitor.checkReplicas();
+
+        assertThat(monitor.getHealthyReplicas()).isEmpty();
+        assertThat(meterRegistry.get("app.datasource.replica.lag").gauge().value()).isNaN();
+    }
+
+    private static DataSource replicaWithLag(double lagSeconds) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+        return dataSource;
+    }
+}
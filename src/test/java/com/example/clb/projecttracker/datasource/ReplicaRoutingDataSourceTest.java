@@ -0,0 +1,100 @@
+package com.example.clb.projecttracker.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+    private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(lagMonitor, tracker);
+
+    @BeforeEach
+    void setUp() {
+        when(lagMonitor.getHealthyReplicas()).thenReturn(List.of("replica-1", "replica-2"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readWriteTransactionsUsePrimary() {
+        beginTransaction(false);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void readOnlyTransactionsRoundRobinOverHealthyReplicas() {
+        beginTransaction(true);
+
+        assertThat(List.of(routing.determineCurrentLookupKey(), routing.determineCurrentLookupKey(), routing.determineCurrentLookupKey()))
+                .containsExactly("replica-1", "replica-2", "replica-1");
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenNoReplicaIsHealthy() {
+        when(lagMonitor.getHealthyReplicas()).thenReturn(List.of());
+        beginTransaction(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void userIsPinnedToPrimaryAfterCommittingWrite() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        beginTransaction(false);
+        routing.determineCurrentLookupKey();
+        assertThat(tracker.isPinnedToPrimary()).isFalse();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        beginTransaction(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob", null, List.of()));
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPin() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        beginTransaction(false);
+        routing.determineCurrentLookupKey();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(tracker.isPinnedToPrimary()).isFalse();
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
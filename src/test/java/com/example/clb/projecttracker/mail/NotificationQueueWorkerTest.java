@@ -0,0 +1,217 @@
+package com.example.clb.projecttracker.mail;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.model.NotificationJob;
+import com.example.clb.projecttracker.model.enums.NotificationJobStatus;
+import com.example.clb.projecttracker.repository.NotificationJobRepository;
+import com.example.clb.projecttracker.scheduler.ClusterLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationQueueWorkerTest {
+
+    private static final TaskExecutor SAME_THREAD = Runnable::run;
+
+    private final NotificationJobRepository repository = mock(NotificationJobRepository.class);
+    private final JavaMailSender mailSender = mock(JavaMailSender.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final AppProperties appProperties = new AppProperties();
+    private final AppProperties.Queue queue = appProperties.getNotifications().getQueue();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolTaskScheduler scheduler;
+    private ThreadPoolTaskExecutor notificationExecutor;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+        when(repository.claimDue(any(), anyInt())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        if (notificationExecutor != null) {
+            notificationExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void busyDrainDoesNotHoldUpOtherScheduledJobs() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.claimDue(any(), anyInt())).thenReturn(List.of(job(1L, 0))).thenReturn(List.of());
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(mailSender).send(any(MimeMessage.class));
+        NotificationQueueWorker worker = worker(startExecutor());
+        // Boot's default: one scheduler thread shared by every @Scheduled method
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.initialize();
+        CountDownLatch otherJobRuns = new CountDownLatch(3);
+
+        scheduler.scheduleWithFixedDelay(worker::drain, Duration.ofMillis(10));
+        assertThat(sending.await(10, TimeUnit.SECONDS)).isTrue();
+        scheduler.scheduleWithFixedDelay(otherJobRuns::countDown, Duration.ofMillis(10));
+
+        assertThat(otherJobRuns.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        verify(repository, timeout(5000)).markSent(eq(1L), any());
+    }
+
+    @Test
+    void pollWhileDrainingDoesNotStartSecondDrain() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.claimDue(any(), anyInt())).thenReturn(List.of(job(1L, 0))).thenReturn(List.of());
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(mailSender).send(any(MimeMessage.class));
+        NotificationQueueWorker worker = worker(startExecutor());
+
+        worker.drain();
+        assertThat(sending.await(10, TimeUnit.SECONDS)).isTrue();
+        worker.drain();
+        worker.drain();
+        release.countDown();
+
+        verify(repository, timeout(5000)).markSent(eq(1L), any());
+        verify(repository, timeout(5000)).countByStatus(NotificationJobStatus.PENDING);
+        verify(repository, times(1)).claimDue(any(), anyInt());
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            worker.drain();
+            verify(repository, atLeast(2)).claimDue(any(), anyInt());
+        });
+    }
+
+    @Test
+    void claimedJobsAreMarkedSendingUntilClaimTimeout() {
+        NotificationJob job = job(1L, 0);
+        when(repository.claimDue(any(), anyInt())).thenReturn(List.of(job)).thenReturn(List.of());
+        doThrow(new IllegalStateException("stop before send")).when(mailSender).createMimeMessage();
+        LocalDateTime before = LocalDateTime.now();
+
+        worker(SAME_THREAD).drain();
+
+        assertThat(job.getStatus()).isEqualTo(NotificationJobStatus.SENDING);
+        assertThat(job.getNextAttemptAt()).isAfterOrEqualTo(before.plus(queue.getClaimTimeout()));
+    }
+
+    @Test
+    void fullBatchIsFollowedByAnotherClaim() {
+        queue.setBatchSize(2);
+        when(repository.claimDue(any(), eq(2)))
+                .thenReturn(List.of(job(1L, 0), job(2L, 0)))
+                .thenReturn(List.of(job(3L, 0)));
+
+        worker(SAME_THREAD).drain();
+
+        verify(repository, times(2)).claimDue(any(), eq(2));
+        verify(mailSender, times(3)).send(any(MimeMessage.class));
+        assertThat(meterRegistry.counter("notifications.queue.jobs", "outcome", "sent").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void transientFailureIsRetriedWithBackoff() {
+        queue.setInitialBackoff(Duration.ofSeconds(30));
+        when(repository.claimDue(any(), anyInt())).thenReturn(List.of(job(1L, 2))).thenReturn(List.of());
+        doThrow(new MailSendException("421 try again later")).when(mailSender).send(any(MimeMessage.class));
+        LocalDateTime before = LocalDateTime.now();
+
+        worker(SAME_THREAD).drain();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).markFailed(eq(1L), eq(NotificationJobStatus.PENDING), eq(3), nextAttempt.capture(), eq("421 try again later"));
+        // Third attempt: 30s doubled twice, plus up to 10% jitter
+        assertThat(nextAttempt.getValue()).isBetween(before.plusSeconds(120), LocalDateTime.now().plusSeconds(132));
+        assertThat(meterRegistry.counter("notifications.queue.jobs", "outcome", "retried").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void jobIsDeadLetteredAfterMaxAttempts() {
+        queue.setMaxAttempts(3);
+        when(repository.claimDue(any(), anyInt())).thenReturn(List.of(job(1L, 2))).thenReturn(List.of());
+        doThrow(new MailSendException("421 try again later")).when(mailSender).send(any(MimeMessage.class));
+
+        worker(SAME_THREAD).drain();
+
+        verify(repository).markFailed(eq(1L), eq(NotificationJobStatus.DEAD), eq(3), any(), anyString());
+        assertThat(meterRegistry.counter("notifications.queue.jobs", "outcome", "dead").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void invalidMessageIsDeadLetteredAtOnce() {
+        when(repository.claimDue(any(), anyInt())).thenReturn(List.of(job(1L, 0))).thenReturn(List.of());
+        doThrow(new MailParseException("bad address")).when(mailSender).send(any(MimeMessage.class));
+
+        worker(SAME_THREAD).drain();
+
+        verify(repository).markFailed(eq(1L), eq(NotificationJobStatus.DEAD), eq(1), any(), eq("bad address"));
+    }
+
+    private ThreadPoolTaskExecutor startExecutor() {
+        notificationExecutor = new ThreadPoolTaskExecutor();
+        notificationExecutor.setCorePoolSize(1);
+        notificationExecutor.initialize();
+        return notificationExecutor;
+    }
+
+    private NotificationQueueWorker worker(TaskExecutor notificationExecutor) {
+        return new NotificationQueueWorker(repository, mailSender, SAME_THREAD, notificationExecutor, transactionTemplate,
+                mock(ClusterLock.class), appProperties, "tracker@example.com", meterRegistry);
+    }
+
+    private static NotificationJob job(Long id, int attempts) {
+        NotificationJob job = new NotificationJob();
+        job.setId(id);
+        job.setRecipient("dev" + id + "@example.com");
+        job.setSubject("Subject " + id);
+        job.setBody("Body " + id);
+        job.setAttempts(attempts);
+        return job;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.clb.projecttracker.mail;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledJavaMailSenderTest {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final AppProperties.Mail properties = new AppProperties().getMail();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PooledJavaMailSender sender;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxConnections(2);
+        properties.setMaxMessagesPerConnection(3);
+        properties.setMaxIdle(Duration.ofMinutes(1));
+        properties.setBorrowTimeout(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (sender != null) {
+            sender.destroy();
+        }
+    }
+
+    @Test
+    void connectionIsReusedUntilMaxMessagesPerConnection() {
+        sender = sender();
+
+        for (int i = 0; i < 5; i++) {
+            sender.send(message(i));
+        }
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(5);
+        assertThat(opened()).isEqualTo(2.0);
+        assertThat(closed("exhausted")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("mail.connections.idle").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void messagesOfOneCallShareConnection() {
+        sender = sender();
+
+        sender.send(message(1), message(2));
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(opened()).isEqualTo(1.0);
+    }
+
+    @Test
+    void connectionIsReplacedAfterNonRecipientFailure() throws MessagingException {
+        sender = sender();
+        sender.send(message(1));
+        MimeMessage failing = failing();
+
+        assertThatThrownBy(() -> sender.send(failing)).isInstanceOf(MailSendException.class);
+        sender.send(message(2));
+
+        assertThat(closed("error")).isEqualTo(1.0);
+        assertThat(opened()).isEqualTo(2.0);
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+    }
+
+    @Test
+    void idleConnectionExpiresBeforeReuse() throws InterruptedException {
+        properties.setMaxIdle(Duration.ofMillis(100));
+        sender = sender();
+        sender.send(message(1));
+
+        Thread.sleep(200);
+        sender.send(message(2));
+
+        assertThat(closed("expired")).isEqualTo(1.0);
+        assertThat(opened()).isEqualTo(2.0);
+    }
+
+    @Test
+    void evictIdleClosesExpiredConnections() throws InterruptedException {
+        properties.setMaxIdle(Duration.ofMillis(100));
+        sender = sender();
+        sender.send(message(1));
+
+        Thread.sleep(200);
+        sender.evictIdle();
+
+        assertThat(closed("expired")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("mail.connections.idle").gauge().value()).isZero();
+    }
+
+    @Test
+    void sendFailsAfterBorrowTimeoutWhenPoolIsExhausted() throws Exception {
+        properties.setMaxConnections(1);
+        properties.setBorrowTimeout(Duration.ofMillis(200));
+        sender = sender();
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MimeMessage blocking = blocking(sending, release);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> sender.send(blocking));
+        assertThat(sending.await(10, TimeUnit.SECONDS)).isTrue();
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> sender.send(message(2)))
+                .isInstanceOf(MailSendException.class)
+                .hasMessageContaining("No SMTP connection became free");
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        sender.send(message(3));
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+    }
+
+    private PooledJavaMailSender sender() {
+        PooledJavaMailSender created = new PooledJavaMailSender(properties, meterRegistry);
+        created.setHost("localhost");
+        created.setPort(greenMail.getSmtp().getPort());
+        return created;
+    }
+
+    private static SimpleMailMessage message(int number) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("tracker@example.com");
+        message.setTo("dev" + number + "@example.com");
+        message.setSubject("Message " + number);
+        message.setText("Body " + number);
+        return message;
+    }
+
+    // Fails while being prepared on the borrowed connection, which the pool treats as a broken session
+    private MimeMessage failing() throws MessagingException {
+        MimeMessage message = new MimeMessage(sender.getSession()) {
+            @Override
+            public void saveChanges() throws MessagingException {
+                throw new MessagingException("Simulated failure");
+            }
+        };
+        address(message);
+        return message;
+    }
+
+    // Holds its connection until released
+    private MimeMessage blocking(CountDownLatch sending, CountDownLatch release) throws MessagingException {
+        MimeMessage message = new MimeMessage(sender.getSession()) {
+            @Override
+            public void saveChanges() throws MessagingException {
+                sending.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.saveChanges();
+            }
+        };
+        address(message);
+        return message;
+    }
+
+    private static void address(MimeMessage message) throws MessagingException {
+        MimeMessageHelper helper = new MimeMessageHelper(message);
+        helper.setFrom("tracker@example.com");
+        helper.setTo("dev@example.com");
+        helper.setSubject("Prepared");
+        helper.setText("Body");
+    }
+
+    private double opened() {
+        return meterRegistry.counter("mail.connections.opened").count();
+    }
+
+    private double closed(String reason) {
+        return meterRegistry.counter("mail.connections.closed", "reason", reason).count();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.clb.projecttracker.mail;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    @Test
+    void burstIsAvailableWithoutWaiting() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 5);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            bucket.acquire();
+        }
+
+        assertThat(System.nanoTime() - started).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    void acquiresBeyondBurstWaitForRefill() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(20, 1);
+        bucket.acquire();
+
+        long started = System.nanoTime();
+        long waited = 0;
+        for (int i = 0; i < 4; i++) {
+            waited += bucket.acquire();
+        }
+        long elapsed = System.nanoTime() - started;
+
+        // Four more tokens at 20 per second take about 200ms
+        assertThat(elapsed).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(180));
+        assertThat(waited).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(180)).isLessThanOrEqualTo(elapsed);
+    }
+
+    @Test
+    void idleTimeRefillsOnlyUpToBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 2);
+        bucket.acquire();
+        bucket.acquire();
+        Thread.sleep(50); // Enough for 50 tokens, but the bucket holds 2
+
+        bucket.acquire();
+        bucket.acquire();
+        long third = bucket.acquire();
+
+        assertThat(third).isPositive();
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
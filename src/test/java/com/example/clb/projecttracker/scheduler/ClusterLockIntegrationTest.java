@@ -0,0 +1,211 @@
+package com.example.clb.projecttracker.scheduler;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.model.SchedulerLock;
+import com.example.clb.projecttracker.repository.SchedulerLockRepository;
+import com.example.clb.projecttracker.service.EmailService;
+import com.example.clb.projecttracker.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Not @Transactional: each lock operation commits on its own, as it does between nodes
+@SpringBootTest
+class ClusterLockIntegrationTest {
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    private static final String OVERDUE_SHARD_0 = "overdue-task-notifications:0/2";
+    private static final String OVERDUE_SHARD_1 = "overdue-task-notifications:1/2";
+
+    private Duration lockAtLeastFor = Duration.ZERO;
+    private String name;
+
+    @BeforeEach
+    void setUp() {
+        name = "test-" + UUID.randomUUID();
+    }
+
+    @Test
+    void secondNodeSkipsWhileFirstIsRunning() {
+        ClusterLock first = node("node-1");
+        ClusterLock second = node("node-2");
+        AtomicInteger runs = new AtomicInteger();
+
+        boolean ran = first.runExclusively(name, () -> {
+            runs.incrementAndGet();
+            assertThat(second.runExclusively(name, runs::incrementAndGet)).isFalse();
+        });
+
+        assertThat(ran).isTrue();
+        assertThat(runs).hasValue(1);
+        assertThat(schedulerLockRepository.findById(name)).get()
+                .extracting(SchedulerLock::getLockedBy).isEqualTo("node-1");
+    }
+
+    @Test
+    void lockIsFreeAfterRunOnceLockAtLeastForHasPassed() {
+        node("node-1").runExclusively(name, () -> { });
+
+        assertThat(node("node-2").runExclusively(name, () -> { })).isTrue();
+        assertThat(schedulerLockRepository.findById(name)).get()
+                .extracting(SchedulerLock::getLockedBy).isEqualTo("node-2");
+    }
+
+    @Test
+    void quickRunKeepsLockForLockAtLeastFor() {
+        lockAtLeastFor = Duration.ofMinutes(5);
+        LocalDateTime before = LocalDateTime.now();
+        node("node-1").runExclusively(name, () -> { });
+
+        assertThat(node("node-2").runExclusively(name, () -> { })).isFalse();
+        assertThat(schedulerLockRepository.findById(name)).get()
+                .extracting(SchedulerLock::getLockedUntil)
+                .satisfies(until -> assertThat(until).isAfterOrEqualTo(before.plusMinutes(5).minusSeconds(1)));
+    }
+
+    @Test
+    void lockOfDeadNodeIsTakenOverOnceExpired() {
+        SchedulerLock stale = new SchedulerLock();
+        stale.setName(name);
+        stale.setLockedBy("dead-node");
+        stale.setLockedAt(LocalDateTime.now().minusHours(2));
+        stale.setLockedUntil(LocalDateTime.now().minusHours(1));
+        schedulerLockRepository.save(stale);
+
+        assertThat(node("node-1").runExclusively(name, () -> { })).isTrue();
+    }
+
+    @Test
+    void unexpiredLockOfOtherNodeIsRespected() {
+        SchedulerLock held = new SchedulerLock();
+        held.setName(name);
+        held.setLockedBy("node-2");
+        held.setLockedAt(LocalDateTime.now());
+        held.setLockedUntil(LocalDateTime.now().plusHours(1));
+        schedulerLockRepository.save(held);
+
+        assertThat(node("node-1").runExclusively(name, () -> { })).isFalse();
+    }
+
+    @Test
+    void lockIsReleasedWhenTaskFails() {
+        ClusterLock first = node("node-1");
+
+        assertThatThrownBy(() -> first.runExclusively(name, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(node("node-2").runExclusively(name, () -> { })).isTrue();
+    }
+
+    @Test
+    void concurrentFirstUseRunsOnOneNodeOnly() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        List<CompletableFuture<Boolean>> attempts = List.of("node-1", "node-2", "node-3", "node-4").stream()
+                .map(this::node)
+                .map(node -> CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    return node.runExclusively(name, () -> {
+                        runs.incrementAndGet();
+                        sleep(200); // Hold the lock while the others try
+                    });
+                }))
+                .toList();
+
+        start.countDown();
+        long ran = 0;
+        for (CompletableFuture<Boolean> attempt : attempts) {
+            if (attempt.get(10, TimeUnit.SECONDS)) {
+                ran++;
+            }
+        }
+
+        assertThat(ran).isEqualTo(1);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void staggeredNodesRunEachOverdueShardOnceEvenAfterLockAtLeastFor() {
+        // The general lock-at-least-for has long passed by the time a node reaches a shard another node finished
+        schedulerLockRepository.deleteAllById(List.of(OVERDUE_SHARD_0, OVERDUE_SHARD_1));
+        AppProperties properties = new AppProperties();
+        properties.getNotifications().setShards(2);
+        TaskService taskService = mock(TaskService.class);
+        TaskNotificationScheduler first = overdueScheduler(taskService, node("node-1"), properties);
+        TaskNotificationScheduler second = overdueScheduler(taskService, node("node-2"), properties);
+        AtomicBoolean secondStarted = new AtomicBoolean();
+        // node-1 and node-2 start at different shards; the second node runs its whole loop while the first is mid-shard
+        when(taskService.findOverdueNotificationChunk(any(), anyInt(), anyInt(), any(), anyInt())).thenAnswer(invocation -> {
+            if (secondStarted.compareAndSet(false, true)) {
+                second.sendOverdueTaskNotifications();
+            }
+            return List.of();
+        });
+
+        try {
+            first.sendOverdueTaskNotifications();
+            second.sendOverdueTaskNotifications();
+
+            verify(taskService, times(1)).findOverdueNotificationChunk(any(), eq(0), eq(2), any(), anyInt());
+            verify(taskService, times(1)).findOverdueNotificationChunk(any(), eq(1), eq(2), any(), anyInt());
+            assertThat(schedulerLockRepository.findAllById(List.of(OVERDUE_SHARD_0, OVERDUE_SHARD_1)))
+                    .extracting(SchedulerLock::getLockedBy).containsExactlyInAnyOrder("node-1", "node-2");
+        } finally {
+            schedulerLockRepository.deleteAllById(List.of(OVERDUE_SHARD_0, OVERDUE_SHARD_1));
+        }
+    }
+
+    private static TaskNotificationScheduler overdueScheduler(TaskService taskService, ClusterLock clusterLock,
+                                                              AppProperties properties) {
+        return new TaskNotificationScheduler(taskService, mock(EmailService.class), Runnable::run, clusterLock,
+                properties, new SimpleMeterRegistry());
+    }
+
+    private ClusterLock node(String nodeId) {
+        AppProperties properties = new AppProperties();
+        properties.getScheduling().setNodeId(nodeId);
+        properties.getScheduling().setLockAtLeastFor(lockAtLeastFor);
+        return new ClusterLock(schedulerLockRepository, properties);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
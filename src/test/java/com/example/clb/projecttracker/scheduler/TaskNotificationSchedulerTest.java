@@ -0,0 +1,221 @@
+package com.example.clb.projecttracker.scheduler;
+
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.dto.OverdueTaskNotificationDto;
+import com.example.clb.projecttracker.service.EmailService;
+import com.example.clb.projecttracker.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskNotificationSchedulerTest {
+
+    private static final String LOCK_NAME = "overdue-task-notifications";
+
+    private final TaskService taskService = mock(TaskService.class);
+    private final EmailService emailService = mock(EmailService.class);
+    private final ClusterLock clusterLock = mock(ClusterLock.class);
+    private final AppProperties appProperties = new AppProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        appProperties.getNotifications().setChunkSize(2);
+        when(clusterLock.getNodeId()).thenReturn("node-1");
+        grant(LOCK_NAME);
+    }
+
+    @Test
+    void chunksAreReadAfterLastTaskUntilShortChunk() {
+        OverdueTaskNotificationDto first = task(1L, 10L, "ada@example.com");
+        OverdueTaskNotificationDto second = task(2L, 11L, "bob@example.com");
+        OverdueTaskNotificationDto third = task(3L, 10L, "ada@example.com");
+        when(taskService.findOverdueNotificationChunk(eq(today), eq(0), eq(1), isNull(), eq(2))).thenReturn(List.of(first, second));
+        when(taskService.findOverdueNotificationChunk(today, 0, 1, second, 2)).thenReturn(List.of(third));
+
+        scheduler().sendOverdueTaskNotifications();
+
+        verify(emailService).sendSimpleMessage(eq("ada@example.com"), eq("Overdue Task Reminder: Task 1"), anyString());
+        verify(emailService).sendSimpleMessage(eq("bob@example.com"), eq("Overdue Task Reminder: Task 2"), anyString());
+        verify(emailService).sendSimpleMessage(eq("ada@example.com"), eq("Overdue Task Reminder: Task 3"), anyString());
+        verify(taskService, never()).findOverdueNotificationChunk(today, 0, 1, third, 2);
+        assertThat(count("notifications.overdue.tasks", "sent")).isEqualTo(3.0);
+        assertThat(meterRegistry.get("notifications.overdue.progress").gauge().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    void tasksWithoutEmailAreSkippedAndFailedSendsCounted() {
+        OverdueTaskNotificationDto unassigned = task(1L, null, null);
+        OverdueTaskNotificationDto failing = task(2L, 10L, "down@example.com");
+        OverdueTaskNotificationDto fine = task(3L, 11L, "ok@example.com");
+        appProperties.getNotifications().setChunkSize(10);
+        when(taskService.findOverdueNotificationChunk(eq(today), eq(0), eq(1), isNull(), eq(10)))
+                .thenReturn(List.of(unassigned, failing, fine));
+        doThrow(new IllegalStateException("queue unavailable"))
+                .when(emailService).sendSimpleMessage(eq("down@example.com"), anyString(), anyString());
+
+        scheduler().sendOverdueTaskNotifications();
+
+        verify(emailService).sendSimpleMessage(eq("ok@example.com"), anyString(), anyString());
+        assertThat(count("notifications.overdue.tasks", "skipped")).isEqualTo(1.0);
+        assertThat(count("notifications.overdue.tasks", "failed")).isEqualTo(1.0);
+        assertThat(count("notifications.overdue.tasks", "sent")).isEqualTo(1.0);
+    }
+
+    @Test
+    void chunksReadBeforeQueryFailureAreStillSent() {
+        OverdueTaskNotificationDto first = task(1L, 10L, "ada@example.com");
+        OverdueTaskNotificationDto second = task(2L, 10L, "ada@example.com");
+        when(taskService.findOverdueNotificationChunk(eq(today), eq(0), eq(1), isNull(), eq(2))).thenReturn(List.of(first, second));
+        when(taskService.findOverdueNotificationChunk(today, 0, 1, second, 2)).thenThrow(new IllegalStateException("connection lost"));
+
+        scheduler().sendOverdueTaskNotifications();
+
+        verify(emailService).sendSimpleMessage(eq("ada@example.com"), startsWith("Overdue Task Reminder: Task 1"), anyString());
+        verify(emailService).sendSimpleMessage(eq("ada@example.com"), startsWith("Overdue Task Reminder: Task 2"), anyString());
+    }
+
+    @Test
+    void onlyShardsWhoseLockIsTakenAreProcessed() {
+        appProperties.getNotifications().setShards(2);
+        grant(LOCK_NAME + ":1/2");
+        when(taskService.findOverdueNotificationChunk(any(), anyInt(), anyInt(), any(), anyInt())).thenReturn(List.of());
+
+        scheduler().sendOverdueTaskNotifications();
+
+        verify(clusterLock).runExclusively(eq(LOCK_NAME + ":0/2"), eq(Duration.ofHours(23)), any());
+        verify(taskService, never()).findOverdueNotificationChunk(any(), eq(0), anyInt(), any(), anyInt());
+        verify(taskService).findOverdueNotificationChunk(today, 1, 2, null, 2);
+    }
+
+    @Test
+    void digestKeepsDeveloperSpanningChunksTogether() {
+        appProperties.getNotifications().setMode(AppProperties.Notifications.Mode.DIGEST);
+        appProperties.getNotifications().getDigest().setSendWindow(Duration.ZERO);
+        OverdueTaskNotificationDto a = task(1L, 10L, "ada@example.com");
+        OverdueTaskNotificationDto b = task(2L, 10L, "ada@example.com");
+        OverdueTaskNotificationDto c = task(3L, 10L, "ada@example.com");
+        OverdueTaskNotificationDto d = task(4L, 11L, "bob@example.com");
+        when(taskService.findOverdueNotificationChunkByDeveloper(eq(today), eq(0), eq(1), isNull(), eq(2))).thenReturn(List.of(a, b));
+        when(taskService.findOverdueNotificationChunkByDeveloper(today, 0, 1, b, 2)).thenReturn(List.of(c, d));
+        when(taskService.findOverdueNotificationChunkByDeveloper(today, 0, 1, d, 2)).thenReturn(List.of());
+
+        scheduler().sendOverdueTaskNotifications();
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(emailService).scheduleSimpleMessage(eq("ada@example.com"), eq("Overdue Tasks Digest: 3 tasks"), body.capture(), any());
+        assertThat(body.getValue()).contains("following 3 tasks", "[#1] Task 1", "[#2] Task 2", "[#3] Task 3");
+        verify(emailService).scheduleSimpleMessage(eq("bob@example.com"), eq("Overdue Tasks Digest: 1 tasks"), anyString(), any());
+        verify(emailService, never()).sendSimpleMessage(anyString(), anyString(), anyString());
+        assertThat(count("notifications.overdue.digests", "sent")).isEqualTo(2.0);
+        assertThat(count("notifications.overdue.tasks", "sent")).isEqualTo(4.0);
+    }
+
+    @Test
+    void digestPerProjectWhenGrouped() {
+        appProperties.getNotifications().setMode(AppProperties.Notifications.Mode.DIGEST);
+        appProperties.getNotifications().setChunkSize(10);
+        appProperties.getNotifications().getDigest().setGroupByProject(true);
+        OverdueTaskNotificationDto apollo = task(1L, 10L, "ada@example.com");
+        OverdueTaskNotificationDto gemini = task(2L, 10L, "ada@example.com");
+        gemini.setProjectName("Gemini");
+        when(taskService.findOverdueNotificationChunkByDeveloper(eq(today), eq(0), eq(1), isNull(), eq(10)))
+                .thenReturn(List.of(apollo, gemini));
+
+        scheduler().sendOverdueTaskNotifications();
+
+        verify(emailService).scheduleSimpleMessage(eq("ada@example.com"), eq("Overdue Tasks Digest: 1 in Apollo"), anyString(), any());
+        verify(emailService).scheduleSimpleMessage(eq("ada@example.com"), eq("Overdue Tasks Digest: 1 in Gemini"), anyString(), any());
+    }
+
+    @Test
+    void digestListsAtMostMaxTasks() {
+        appProperties.getNotifications().setMode(AppProperties.Notifications.Mode.DIGEST);
+        appProperties.getNotifications().setChunkSize(10);
+        appProperties.getNotifications().getDigest().setMaxTasksPerDigest(2);
+        when(taskService.findOverdueNotificationChunkByDeveloper(eq(today), eq(0), eq(1), isNull(), eq(10))).thenReturn(List.of(
+                task(1L, 10L, "ada@example.com"), task(2L, 10L, "ada@example.com"), task(3L, 10L, "ada@example.com")));
+
+        scheduler().sendOverdueTaskNotifications();
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(emailService).scheduleSimpleMessage(eq("ada@example.com"), eq("Overdue Tasks Digest: 3 tasks"), body.capture(), any());
+        assertThat(body.getValue()).contains("[#1]", "[#2]", "...and 1 more.").doesNotContain("[#3]");
+    }
+
+    @Test
+    void digestsAreSpreadOverSendWindowAtStableOffsets() {
+        appProperties.getNotifications().setMode(AppProperties.Notifications.Mode.DIGEST);
+        appProperties.getNotifications().setChunkSize(10);
+        Duration window = appProperties.getNotifications().getDigest().getSendWindow();
+        when(taskService.findOverdueNotificationChunkByDeveloper(eq(today), eq(0), eq(1), isNull(), eq(10)))
+                .thenReturn(List.of(task(1L, 10L, "ada@example.com")));
+
+        LocalDateTime before = LocalDateTime.now();
+        scheduler().sendOverdueTaskNotifications();
+        scheduler().sendOverdueTaskNotifications();
+        LocalDateTime after = LocalDateTime.now();
+
+        ArgumentCaptor<LocalDateTime> sendAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailService, times(2)).scheduleSimpleMessage(eq("ada@example.com"), anyString(), anyString(), sendAt.capture());
+        assertThat(sendAt.getAllValues()).allSatisfy(time -> assertThat(time).isBetween(before, after.plus(window)));
+        // Same recipient, same offset: the two runs differ only by how far apart they started
+        assertThat(Duration.between(sendAt.getAllValues().get(0), sendAt.getAllValues().get(1)))
+                .isLessThanOrEqualTo(Duration.between(before, after));
+    }
+
+    @Test
+    void digestSkippedForDeveloperWithoutEmail() {
+        appProperties.getNotifications().setMode(AppProperties.Notifications.Mode.DIGEST);
+        appProperties.getNotifications().setChunkSize(10);
+        when(taskService.findOverdueNotificationChunkByDeveloper(eq(today), eq(0), eq(1), isNull(), eq(10)))
+                .thenReturn(List.of(task(1L, 10L, " "), task(2L, 10L, " ")));
+
+        scheduler().sendOverdueTaskNotifications();
+
+        verify(emailService, never()).scheduleSimpleMessage(anyString(), anyString(), anyString(), any());
+        assertThat(count("notifications.overdue.tasks", "skipped")).isEqualTo(2.0);
+    }
+
+    private void grant(String lockName) {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return true;
+        }).when(clusterLock).runExclusively(eq(lockName), any(Duration.class), any());
+    }
+
+    private TaskNotificationScheduler scheduler() {
+        return new TaskNotificationScheduler(taskService, emailService, Runnable::run, clusterLock, appProperties, meterRegistry);
+    }
+
+    private double count(String name, String outcome) {
+        return meterRegistry.counter(name, "outcome", outcome).count();
+    }
+
+    private OverdueTaskNotificationDto task(Long id, Long developerId, String email) {
+        return new OverdueTaskNotificationDto(id, "Task " + id, today.minusDays(1), "Apollo", developerId,
+                developerId != null ? "Dev " + developerId : null, email);
+    }
+}
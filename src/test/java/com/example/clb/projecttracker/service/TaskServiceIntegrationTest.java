@@ -0,0 +1,254 @@
+package com.example.clb.projecttracker.service;
+
+import com.example.clb.projecttracker.dto.CursorPageDto;
+import com.example.clb.projecttracker.dto.OverdueTaskNotificationDto;
+import com.example.clb.projecttracker.dto.TaskDto;
+import com.example.clb.projecttracker.dto.TaskExportFilterDto;
+import com.example.clb.projecttracker.exception.BadRequestException;
+import com.example.clb.projecttracker.model.Developer;
+import com.example.clb.projecttracker.model.Project;
+import com.example.clb.projecttracker.model.Task;
+import com.example.clb.projecttracker.model.enums.ProjectStatus;
+import com.example.clb.projecttracker.model.enums.TaskStatus;
+import com.example.clb.projecttracker.repository.DeveloperRepository;
+import com.example.clb.projecttracker.repository.ProjectRepository;
+import com.example.clb.projecttracker.repository.TaskRepository;
+import com.example.clb.projecttracker.util.CsvUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class TaskServiceIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private DeveloperRepository developerRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        project = new Project();
+        project.setName("Project " + UUID.randomUUID());
+        project.setDeadline(LocalDate.now().plusMonths(1));
+        project.setStatus(ProjectStatus.IN_PROGRESS);
+        project = projectRepository.save(project);
+    }
+
+    @Test
+    void scrollVisitsEveryTaskOnceInDueDateOrderThenUndated() {
+        LocalDate today = LocalDate.now();
+        // Saved in this order, so ids break the same-day tie and order the undated tail
+        task("undated-1", TaskStatus.TO_DO, null);
+        task("late", TaskStatus.TO_DO, today.plusDays(5));
+        task("same-day-1", TaskStatus.TO_DO, today.plusDays(1));
+        task("same-day-2", TaskStatus.TO_DO, today.plusDays(1));
+        task("early", TaskStatus.TO_DO, today.minusDays(2));
+        task("undated-2", TaskStatus.TO_DO, null);
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        int windows = 0;
+        do {
+            CursorPageDto<TaskDto> window = taskService.scrollTasksByProjectId(project.getId(), cursor, 2);
+            window.getContent().forEach(task -> titles.add(task.getTitle()));
+            cursor = window.getNextCursor();
+            windows++;
+        } while (cursor != null);
+
+        assertThat(windows).isEqualTo(3);
+        assertThat(titles).containsExactly("early", "same-day-1", "same-day-2", "late", "undated-1", "undated-2");
+    }
+
+    @Test
+    void projectSummariesSkipDescriptionAndKeepUnassignedTasks() {
+        Developer developer = developer("Ada");
+        Task assigned = task("assigned", TaskStatus.IN_PROGRESS, LocalDate.now());
+        assigned.setDescription("long text");
+        assigned.setDeveloper(developer);
+        task("unassigned", TaskStatus.TO_DO, null).setDescription("long text");
+        taskRepository.flush();
+
+        Page<TaskDto> page = taskService.getTasksByProjectId(project.getId(), PageRequest.of(0, 10, Sort.by("title")), false);
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(TaskDto::getTitle).containsExactly("assigned", "unassigned");
+        assertThat(page.getContent()).allSatisfy(task -> {
+            assertThat(task.getDescription()).isNull();
+            assertThat(task.getProject().getName()).isEqualTo(project.getName());
+        });
+        assertThat(page.getContent().get(0).getDeveloper().getName()).isEqualTo("Ada");
+        assertThat(page.getContent().get(1).getDeveloper()).isNull();
+    }
+
+    @Test
+    void developerSummariesMatchFullMapping() {
+        Developer developer = developer("Grace");
+        Task task = task("mine", TaskStatus.TO_DO, LocalDate.now().plusDays(1));
+        task.setDeveloper(developer);
+        taskRepository.flush();
+
+        TaskDto summary = taskService.getTasksByDeveloperId(developer.getId(), PageRequest.of(0, 10), false).getContent().get(0);
+        TaskDto full = taskService.getTasksByDeveloperId(developer.getId(), PageRequest.of(0, 10), true).getContent().get(0);
+
+        assertThat(summary).usingRecursiveComparison().ignoringFields("description").isEqualTo(full);
+    }
+
+    @Test
+    void csvExportWritesFilteredRowsWithEscaping() throws Exception {
+        task("plain", TaskStatus.TO_DO, LocalDate.now());
+        task("needs, \"quotes\"", TaskStatus.TO_DO, LocalDate.now());
+        task("other status", TaskStatus.COMPLETED, LocalDate.now());
+        TaskExportFilterDto filter = new TaskExportFilterDto();
+        filter.setProjectId(project.getId());
+        filter.setStatus(TaskStatus.TO_DO);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskService.exportTasksAsCsv(filter, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.get(0)).startsWith("id,title,description,status");
+        assertThat(lines).hasSize(3);
+        assertThat(lines.subList(1, 3)).extracting(line -> CsvUtils.parseLine(line).get(1))
+                .containsExactlyInAnyOrder("plain", "needs, \"quotes\"");
+    }
+
+    @Test
+    void ndjsonExportWritesOneTaskPerLine() throws Exception {
+        task("first", TaskStatus.TO_DO, null);
+        task("second", TaskStatus.IN_PROGRESS, null);
+        TaskExportFilterDto filter = new TaskExportFilterDto();
+        filter.setProjectId(project.getId());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskService.exportTasksAsNdjson(filter, out);
+
+        List<TaskDto> exported = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).lines().toList()) {
+            exported.add(objectMapper.readValue(line, TaskDto.class));
+        }
+        assertThat(exported).extracting(TaskDto::getTitle).containsExactlyInAnyOrder("first", "second");
+        assertThat(exported).allSatisfy(task -> assertThat(task.getProject().getId()).isEqualTo(project.getId()));
+    }
+
+    @Test
+    void overdueChunksVisitEveryOpenOverdueTaskOnceInDueDateOrder() {
+        // Dates far in the past keep other tests' overdue tasks out of the run
+        LocalDate today = LocalDate.of(1990, 6, 1);
+        Developer developer = developer("Linus");
+        task("late-2", TaskStatus.TO_DO, today.minusDays(1)).setDeveloper(developer);
+        task("late-1", TaskStatus.IN_PROGRESS, today.minusDays(3));
+        task("same-day", TaskStatus.BLOCKED, today.minusDays(1));
+        task("done", TaskStatus.COMPLETED, today.minusDays(2));
+        task("cancelled", TaskStatus.CANCELLED, today.minusDays(2));
+        task("due-today", TaskStatus.TO_DO, today);
+        taskRepository.flush();
+
+        List<OverdueTaskNotificationDto> visited = new ArrayList<>();
+        OverdueTaskNotificationDto last = null;
+        List<OverdueTaskNotificationDto> chunk;
+        do {
+            chunk = taskService.findOverdueNotificationChunk(today, 0, 1, last, 2);
+            visited.addAll(chunk);
+            last = chunk.isEmpty() ? last : chunk.get(chunk.size() - 1);
+        } while (chunk.size() == 2);
+
+        assertThat(visited).extracting(OverdueTaskNotificationDto::getTitle).containsExactly("late-1", "late-2", "same-day");
+        assertThat(visited.get(1).getDeveloperEmail()).isEqualTo(developer.getEmail());
+        assertThat(visited.get(1).getProjectName()).isEqualTo(project.getName());
+        assertThat(visited.get(0).getDeveloperId()).isNull();
+    }
+
+    @Test
+    void overdueShardsPartitionTasksByDeveloper() {
+        LocalDate today = LocalDate.of(1990, 6, 1);
+        List<Developer> developers = List.of(developer("A"), developer("B"), developer("C"));
+        for (Developer developer : developers) {
+            task("for " + developer.getName(), TaskStatus.TO_DO, today.minusDays(1)).setDeveloper(developer);
+        }
+        task("unassigned", TaskStatus.TO_DO, today.minusDays(1));
+        taskRepository.flush();
+
+        List<String> all = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            List<OverdueTaskNotificationDto> tasks = taskService.findOverdueNotificationChunk(today, shard, 3, null, 100);
+            int current = shard;
+            assertThat(tasks).allSatisfy(task -> assertThat(task.getDeveloperId() == null ? 0 : task.getDeveloperId() % 3)
+                    .isEqualTo((long) current));
+            tasks.forEach(task -> all.add(task.getTitle()));
+        }
+
+        assertThat(all).containsExactlyInAnyOrder("for A", "for B", "for C", "unassigned");
+    }
+
+    @Test
+    void overdueDigestChunksGroupAssignedTasksByDeveloper() {
+        LocalDate today = LocalDate.of(1990, 6, 1);
+        Developer first = developer("First");
+        Developer second = developer("Second");
+        task("second-early", TaskStatus.TO_DO, today.minusDays(9)).setDeveloper(second);
+        task("first-late", TaskStatus.TO_DO, today.minusDays(1)).setDeveloper(first);
+        task("first-early", TaskStatus.TO_DO, today.minusDays(5)).setDeveloper(first);
+        task("unassigned", TaskStatus.TO_DO, today.minusDays(7));
+        taskRepository.flush();
+
+        List<OverdueTaskNotificationDto> visited = new ArrayList<>();
+        OverdueTaskNotificationDto last = null;
+        List<OverdueTaskNotificationDto> chunk;
+        do {
+            chunk = taskService.findOverdueNotificationChunkByDeveloper(today, 0, 1, last, 2);
+            visited.addAll(chunk);
+            last = chunk.isEmpty() ? last : chunk.get(chunk.size() - 1);
+        } while (chunk.size() == 2);
+
+        assertThat(visited).extracting(OverdueTaskNotificationDto::getTitle)
+                .containsExactly("first-early", "first-late", "second-early");
+    }
+
+    @Test
+    void scrollRejectsTamperedCursor() {
+        assertThatThrownBy(() -> taskService.scrollTasksByProjectId(project.getId(), "bm90LWEtZGF0ZXwx", 10))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private Task task(String title, TaskStatus status, LocalDate dueDate) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setDueDate(dueDate);
+        task.setProject(project);
+        return taskRepository.save(task);
+    }
+
+    private Developer developer(String name) {
+        Developer developer = new Developer();
+        developer.setName(name);
+        developer.setEmail(UUID.randomUUID() + "@example.com");
+        return developerRepository.save(developer);
+    }
+}
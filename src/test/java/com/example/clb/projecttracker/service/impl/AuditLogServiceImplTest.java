@@ -0,0 +1,135 @@
+package com.example.clb.projecttracker.service.impl;
+
+import com.example.clb.projecttracker.audit.AuditArchive;
+import com.example.clb.projecttracker.audit.AuditOutbox;
+import com.example.clb.projecttracker.document.AuditLog;
+import com.example.clb.projecttracker.document.enums.RollupGranularity;
+import com.example.clb.projecttracker.dto.CursorPageDto;
+import com.example.clb.projecttracker.dto.FieldChangeFilterDto;
+import com.example.clb.projecttracker.exception.BadRequestException;
+import com.example.clb.projecttracker.repository.AuditLogRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AuditLogServiceImplTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final AuditLogServiceImpl auditLogService = new AuditLogServiceImpl(
+            mock(AuditLogRepository.class), mock(AuditOutbox.class), mock(AuditArchive.class), mongoTemplate);
+
+    @Test
+    void firstWindowFetchesOneExtraRowToDetectMore() {
+        List<AuditLog> rows = events(4);
+        when(mongoTemplate.find(any(Query.class), eq(AuditLog.class))).thenReturn(rows);
+
+        CursorPageDto<AuditLog> window = auditLogService.scrollAuditLogs("Task", null, null, null, 3);
+
+        Query query = capturedQuery();
+        assertThat(query.getLimit()).isEqualTo(4);
+        assertThat(query.getSortObject()).isEqualTo(new Document("timestamp", -1).append("_id", -1));
+        assertThat(query.getQueryObject().get("entityType")).isEqualTo("Task");
+        assertThat(window.getContent()).containsExactlyElementsOf(rows.subList(0, 3));
+        assertThat(window.isHasNext()).isTrue();
+        assertThat(window.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void cursorSeeksPastLastReturnedEntry() {
+        List<AuditLog> rows = events(3);
+        when(mongoTemplate.find(any(Query.class), eq(AuditLog.class))).thenReturn(rows).thenReturn(List.of());
+        String cursor = auditLogService.scrollAuditLogs(null, null, null, null, 2).getNextCursor();
+
+        CursorPageDto<AuditLog> next = auditLogService.scrollAuditLogs(null, null, null, cursor, 2);
+
+        assertThat(next.isHasNext()).isFalse();
+        assertThat(next.getNextCursor()).isNull();
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queries.capture(), eq(AuditLog.class));
+        @SuppressWarnings("unchecked")
+        List<Document> or = (List<Document>) queries.getAllValues().get(1).getQueryObject().get("$or");
+        AuditLog last = rows.get(1);
+        assertThat(or).containsExactly(
+                new Document("timestamp", new Document("$lt", last.getTimestamp())),
+                new Document("timestamp", last.getTimestamp()).append("_id", new Document("$lt", new ObjectId(last.getId()))));
+    }
+
+    @Test
+    void windowSizeIsCapped() {
+        when(mongoTemplate.find(any(Query.class), eq(AuditLog.class))).thenReturn(List.of());
+
+        auditLogService.scrollAuditLogs(null, null, null, null, 10_000);
+
+        assertThat(capturedQuery().getLimit()).isEqualTo(101);
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        assertThatThrownBy(() -> auditLogService.scrollAuditLogs(null, null, null, "bm90LWEtdGltZXx4", 10))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void activityRequiresFromBeforeTo() {
+        LocalDateTime at = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        assertThatThrownBy(() -> auditLogService.getActivity(RollupGranularity.HOUR, at, at, null, null, null))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void fieldChangesRequireField() {
+        assertThatThrownBy(() -> auditLogService.scrollFieldChanges(new FieldChangeFilterDto(), null, 10))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void fieldChangesPinFieldAndValueToSameChange() {
+        when(mongoTemplate.find(any(Query.class), eq(AuditLog.class))).thenReturn(List.of());
+        FieldChangeFilterDto filter = new FieldChangeFilterDto();
+        filter.setField("status");
+        filter.setTo("COMPLETED");
+        filter.setEntityId(42L);
+
+        auditLogService.scrollFieldChanges(filter, null, 10);
+
+        Document query = capturedQuery().getQueryObject();
+        assertThat(query.get("entityId")).isEqualTo(42L);
+        assertThat(query.get("changes.field")).isEqualTo("status");
+        assertThat(query.get("changes")).isEqualTo(new Document("$elemMatch",
+                new Document("field", "status").append("to", "COMPLETED")));
+    }
+
+    private Query capturedQuery() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(AuditLog.class));
+        return query.getValue();
+    }
+
+    private static List<AuditLog> events(int count) {
+        List<AuditLog> events = new ArrayList<>();
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 0);
+        for (int i = 0; i < count; i++) {
+            events.add(AuditLog.builder().id(new ObjectId().toHexString()).timestamp(timestamp.minusSeconds(i)).entityType("Task").build());
+        }
+        return events;
+    }
+}
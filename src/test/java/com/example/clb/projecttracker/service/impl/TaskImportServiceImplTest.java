@@ -0,0 +1,173 @@
+package com.example.clb.projecttracker.service.impl;
+
+import com.example.clb.projecttracker.cache.TaggedCacheInvalidator;
+import com.example.clb.projecttracker.config.AppProperties;
+import com.example.clb.projecttracker.dto.TaskImportResultDto;
+import com.example.clb.projecttracker.model.Project;
+import com.example.clb.projecttracker.model.enums.ProjectStatus;
+import com.example.clb.projecttracker.repository.DeveloperRepository;
+import com.example.clb.projecttracker.repository.ProjectRepository;
+import com.example.clb.projecttracker.repository.TaskRepository;
+import com.example.clb.projecttracker.service.AuditLogService;
+import com.example.clb.projecttracker.service.TaskImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TaskImportServiceImplTest {
+
+    @Autowired
+    private TaskImportService taskImportService;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AppProperties appProperties;
+    @Autowired
+    private DeveloperRepository developerRepository;
+    @Autowired
+    private AuditLogService auditLogService;
+    @Autowired
+    private TaggedCacheInvalidator taggedCacheInvalidator;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Project project;
+    private int chunkSize;
+
+    @BeforeEach
+    void setUp() {
+        project = new Project();
+        project.setName("Import " + UUID.randomUUID());
+        project.setDeadline(LocalDate.now().plusMonths(1));
+        project.setStatus(ProjectStatus.IN_PROGRESS);
+        project = projectRepository.save(project);
+        chunkSize = appProperties.getTaskImport().getChunkSize();
+        appProperties.getTaskImport().setChunkSize(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        appProperties.getTaskImport().setChunkSize(chunkSize);
+        jdbcTemplate.execute("ALTER TABLE tasks DROP CONSTRAINT IF EXISTS chk_import_test");
+        projectRepository.deleteById(project.getId());
+    }
+
+    @Test
+    void importsEveryValidRowInChunks() throws Exception {
+        TaskImportResultDto result = taskImportService.importNdjson(ndjson("a", "b", "c", "d", "e"));
+
+        assertThat(result.getReceived()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(5);
+        assertThat(result.getFailed()).isZero();
+        assertThat(taskRepository.findByProjectId(project.getId())).hasSize(5);
+    }
+
+    @Test
+    void constraintViolationRejectsOnlyItsChunk() throws Exception {
+        jdbcTemplate.execute("ALTER TABLE tasks ADD CONSTRAINT chk_import_test CHECK (title <> 'rejected by db')");
+
+        // Chunks of two: [a, b], [rejected by db, c], [d]
+        TaskImportResultDto result = taskImportService.importNdjson(ndjson("a", "b", "rejected by db", "c", "d"));
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(TaskImportResultDto.RowError::getRow).containsExactly(3, 4);
+        assertThat(result.getErrors()).allSatisfy(error -> assertThat(error.getMessage()).startsWith("Chunk rejected by the database"));
+        assertThat(taskRepository.findByProjectId(project.getId())).extracting("title").containsExactlyInAnyOrder("a", "b", "d");
+    }
+
+    @Test
+    void invalidRowsAreRejectedBeforeReachingDatabase() throws Exception {
+        String payload = "{\"title\":\"ok\",\"status\":\"TO_DO\",\"projectId\":" + project.getId() + "}\n"
+                + "{\"title\":\"\",\"status\":\"TO_DO\",\"projectId\":" + project.getId() + "}\n"
+                + "{\"title\":\"no project\",\"status\":\"TO_DO\",\"projectId\":-1}\n"
+                + "not json\n";
+
+        TaskImportResultDto result = taskImportService.importNdjson(new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(TaskImportResultDto.RowError::getRow).containsExactlyInAnyOrder(2, 3, 4);
+    }
+
+    @Test
+    void statusCountCachesAreEvictedAfterChunkCommits() throws Exception {
+        List<String> evictedInTransaction = new ArrayList<>();
+        List<String> evictedAfterCommit = new ArrayList<>();
+        CacheManager recordingCacheManager = new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                return new ConcurrentMapCache(name) {
+                    @Override
+                    public void evict(Object key) {
+                        record(name + ":" + key);
+                        super.evict(key);
+                    }
+
+                    @Override
+                    public void clear() {
+                        record(name);
+                        super.clear();
+                    }
+
+                    private void record(String eviction) {
+                        (TransactionSynchronizationManager.isActualTransactionActive() ? evictedInTransaction : evictedAfterCommit)
+                                .add(eviction);
+                    }
+                };
+            }
+        };
+        recordingCacheManager.getCache("taskStatusCountsByProject").put(project.getId(), "stale");
+        TaskImportService service = new TaskImportServiceImpl(taskRepository, projectRepository, developerRepository,
+                auditLogService, taggedCacheInvalidator, recordingCacheManager, transactionTemplate, entityManager,
+                validator, objectMapper, appProperties);
+
+        service.importNdjson(ndjson("a", "b", "c"));
+
+        assertThat(evictedInTransaction).isEmpty();
+        assertThat(evictedAfterCommit).containsExactly(
+                "taskStatusCountsByProject:" + project.getId(), "taskStatusCountsOverall",
+                "taskStatusCountsByProject:" + project.getId(), "taskStatusCountsOverall");
+        assertThat(recordingCacheManager.getCache("taskStatusCountsByProject").get(project.getId())).isNull();
+    }
+
+    private ByteArrayInputStream ndjson(String... titles) {
+        StringBuilder payload = new StringBuilder();
+        for (String title : titles) {
+            payload.append("{\"title\":\"").append(title).append("\",\"status\":\"TO_DO\",\"projectId\":")
+                    .append(project.getId()).append("}\n");
+        }
+        return new ByteArrayInputStream(payload.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
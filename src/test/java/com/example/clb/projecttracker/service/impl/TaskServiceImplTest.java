@@ -0,0 +1,113 @@
+package com.example.clb.projecttracker.service.impl;
+
+import com.example.clb.projecttracker.cache.CacheTags;
+import com.example.clb.projecttracker.cache.TaggedCacheInvalidator;
+import com.example.clb.projecttracker.dto.TaskRequestDto;
+import com.example.clb.projecttracker.model.Project;
+import com.example.clb.projecttracker.model.Task;
+import com.example.clb.projecttracker.model.enums.TaskStatus;
+import com.example.clb.projecttracker.repository.DeveloperRepository;
+import com.example.clb.projecttracker.repository.ProjectRepository;
+import com.example.clb.projecttracker.repository.TaskRepository;
+import com.example.clb.projecttracker.service.AuditLogService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskServiceImplTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private ProjectRepository projectRepository;
+    @Mock
+    private DeveloperRepository developerRepository;
+    @Mock
+    private AuditLogService auditLogService;
+    @Mock
+    private TaggedCacheInvalidator taggedCacheInvalidator;
+    @Mock
+    private EntityManager entityManager;
+
+    private TaskServiceImpl taskService;
+    private Project project;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new TaskServiceImpl(taskRepository, projectRepository, developerRepository, auditLogService,
+                taggedCacheInvalidator, entityManager, new ObjectMapper());
+        project = new Project();
+        project.setId(7L);
+        project.setName("Apollo");
+        task = new Task();
+        task.setId(1L);
+        task.setTitle("Old title");
+        task.setStatus(TaskStatus.TO_DO);
+        task.setDueDate(LocalDate.now().plusDays(3));
+        task.setProject(project);
+    }
+
+    @Test
+    void titleOnlyUpdateInvalidatesGlobalListing() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(projectRepository.findById(7L)).thenReturn(Optional.of(project));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.updateTask(1L, request("New title", task.getStatus(), task.getDueDate()));
+
+        assertThat(invalidatedTags()).containsExactlyInAnyOrder(CacheTags.ALL_TASKS, CacheTags.project(7L));
+    }
+
+    @Test
+    void completingOverdueTaskAlsoInvalidatesOverdueListing() {
+        task.setDueDate(LocalDate.now().minusDays(1));
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(projectRepository.findById(7L)).thenReturn(Optional.of(project));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.updateTask(1L, request(task.getTitle(), TaskStatus.COMPLETED, task.getDueDate()));
+
+        assertThat(invalidatedTags()).contains(CacheTags.ALL_TASKS, CacheTags.OVERDUE_TASKS);
+    }
+
+    @Test
+    void deleteInvalidatesGlobalAndProjectListings() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        taskService.deleteTask(1L);
+
+        assertThat(invalidatedTags()).containsExactlyInAnyOrder(CacheTags.ALL_TASKS, CacheTags.project(7L));
+    }
+
+    private TaskRequestDto request(String title, TaskStatus status, LocalDate dueDate) {
+        TaskRequestDto request = new TaskRequestDto();
+        request.setTitle(title);
+        request.setStatus(status);
+        request.setDueDate(dueDate);
+        request.setProjectId(7L);
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<String> invalidatedTags() {
+        ArgumentCaptor<Collection<String>> tags = ArgumentCaptor.forClass(Collection.class);
+        verify(taggedCacheInvalidator).invalidate(tags.capture());
+        return tags.getValue();
+    }
+}
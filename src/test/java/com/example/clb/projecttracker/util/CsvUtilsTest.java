@@ -0,0 +1,36 @@
+package com.example.clb.projecttracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvUtilsTest {
+
+    @Test
+    void parsesPlainAndQuotedFields() {
+        assertThat(CsvUtils.parseLine("1,\"a, b\",\"say \"\"hi\"\"\",,end"))
+                .containsExactly("1", "a, b", "say \"hi\"", "", "end");
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThatThrownBy(() -> CsvUtils.parseLine("1,\"open")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void escapesOnlyWhenNeeded() {
+        assertThat(CsvUtils.escape(null)).isEmpty();
+        assertThat(CsvUtils.escape(42L)).isEqualTo("42");
+        assertThat(CsvUtils.escape("a, b")).isEqualTo("\"a, b\"");
+        assertThat(CsvUtils.escape("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+        assertThat(CsvUtils.escape("two\nlines")).isEqualTo("\"two\nlines\"");
+    }
+
+    @Test
+    void escapedValuesParseBack() {
+        String line = String.join(",", CsvUtils.escape("a, \"b\""), CsvUtils.escape("plain"));
+
+        assertThat(CsvUtils.parseLine(line)).containsExactly("a, \"b\"", "plain");
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.clb.projecttracker.util;
+
+import com.example.clb.projecttracker.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    @Test
+    void roundTripsParts() {
+        String cursor = CursorCodec.encode("2024-05-01", "42");
+
+        assertThat(CursorCodec.decode(cursor, 2)).containsExactly("2024-05-01", "42");
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        String cursor = CursorCodec.encode("??>>", "~~~");
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsWrongNumberOfParts() {
+        String cursor = CursorCodec.encode("a", "b", "c");
+
+        assertThatThrownBy(() -> CursorCodec.decode(cursor, 2)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void rejectsMalformedBase64() {
+        assertThatThrownBy(() -> CursorCodec.decode("not base64!", 2)).isInstanceOf(BadRequestException.class);
+    }
+}